@@ -1,6 +1,7 @@
 plugins {
     java
     application
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 application {
@@ -32,6 +33,10 @@ dependencies {
     testImplementation("org.mockito:mockito-junit-jupiter:5.12.0")
 }
 
+jmh {
+    jmhVersion = "1.37"
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
     testLogging {
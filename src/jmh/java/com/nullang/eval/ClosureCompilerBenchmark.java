@@ -0,0 +1,63 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Program;
+import com.nullang.eval.jit.Jit;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/** The tree walker against the closure compiler on the scripts shipped in {@code src/main/resources}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClosureCompilerBenchmark {
+    @Param({"file.null", "examples/fib.null", "examples/closures.null", "examples/arrays.null", "examples/strings.null"})
+    private String script;
+
+    private Eval eval;
+    private Program program;
+    private Executable compiled;
+
+    @Setup
+    public void setup() throws IOException {
+        String source;
+        try (InputStream in = ClosureCompilerBenchmark.class.getResourceAsStream("/" + script)) {
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // Both engines do their one-off work here: the tree walker resolves the program once and keeps
+        // its specialized nodes, the closure compiler builds its tree once.
+        eval = new Eval(Jit.DISABLED);
+        program = new Parser(new Lexer(source)).parseProgram();
+        Resolver.resolve(program);
+        compiled = new ClosureCompiler().compile(new Parser(new Lexer(source)).parseProgram());
+    }
+
+    @Benchmark
+    public NullangObject eval() {
+        return eval.evaluate(program, new Env());
+    }
+
+    @Benchmark
+    public NullangObject closure() {
+        return compiled.execute(new Env());
+    }
+}
@@ -0,0 +1,97 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Program;
+import com.nullang.compiler.Bytecode;
+import com.nullang.compiler.Compiler;
+import com.nullang.eval.jit.Jit;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.parser.Parser;
+import com.nullang.vm.Vm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvalBenchmark {
+    private static final String FIB = """
+            let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) };
+            fib(20);
+            """;
+
+    private static final String NESTED_CLOSURES = """
+            let outer = fn(a) {
+                let b = a + 1;
+                fn(c) {
+                    let d = c * 2;
+                    fn(e) { a + b + c + d + e }
+                }
+            };
+            let run = fn(n, acc) { if (n < 1) { return acc; } run(n - 1, acc + outer(n)(n)(n)) };
+            run(200, 0);
+            """;
+
+    private Program fib;
+    private Program nestedClosures;
+    private Program fibJit;
+    private Jit jit;
+    private Bytecode fibBytecode;
+    private Bytecode nestedClosuresBytecode;
+
+    @Setup
+    public void setup() {
+        fib = new Parser(new Lexer(FIB)).parseProgram();
+        nestedClosures = new Parser(new Lexer(NESTED_CLOSURES)).parseProgram();
+        fibJit = new Parser(new Lexer(FIB)).parseProgram();
+        jit = new Jit(Jit.DEFAULT_THRESHOLD);
+        fibBytecode = new Compiler().compile(fib);
+        nestedClosuresBytecode = new Compiler().compile(nestedClosures);
+    }
+
+    @Benchmark
+    public NullangObject fib() {
+        return new Eval(Jit.DISABLED).evaluate(fib, new Env());
+    }
+
+    /** Variable reads that cross several closure frames. */
+    @Benchmark
+    public NullangObject nestedClosures() {
+        return new Eval(Jit.DISABLED).evaluate(nestedClosures, new Env());
+    }
+
+    /** The same tree walk with its stack on the heap. */
+    @Benchmark
+    public NullangObject fibStack() {
+        return new StackEval().evaluate(fib, new Env());
+    }
+
+    /** The tree walker with fib's body compiled to a hidden class after its first calls. */
+    @Benchmark
+    public NullangObject fibJit() {
+        return new Eval(jit).evaluate(fibJit, new Env());
+    }
+
+    @Benchmark
+    public NullangObject fibVm() {
+        return new Vm().run(fibBytecode);
+    }
+
+    @Benchmark
+    public NullangObject nestedClosuresVm() {
+        return new Vm().run(nestedClosuresBytecode);
+    }
+}
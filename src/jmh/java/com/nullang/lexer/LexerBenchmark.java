@@ -0,0 +1,71 @@
+package com.nullang.lexer;
+
+import com.nullang.token.Token;
+import com.nullang.token.TokenType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexerBenchmark {
+    @Param({"1000", "50000"})
+    private int statements;
+
+    private String source;
+    private char[] chars;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < statements; i++) {
+            sb.append("let value_").append(i).append(" = fn(a, b) { if (a < b) { a + 42 } else { \"text\" } };\n");
+            sb.append("value_").append(i).append("([1, 2, 3][0], 2137) != true;\n");
+        }
+        source = sb.toString();
+        chars = source.toCharArray();
+    }
+
+    @Benchmark
+    public void readerSource(Blackhole bh) {
+        drain(new Lexer(new StringReader(source)), bh);
+    }
+
+    @Benchmark
+    public void charArraySource(Blackhole bh) {
+        drain(new Lexer(chars), bh);
+    }
+
+    @Benchmark
+    public void bufferedReaderSource(Blackhole bh) {
+        drain(Lexer.buffered(new StringReader(source)), bh);
+    }
+
+    @Benchmark
+    public TokenArray tokenArray() {
+        return TokenArray.tokenize(chars);
+    }
+
+    private static void drain(Lexer lexer, Blackhole bh) {
+        Token token;
+        while ((token = lexer.nextToken()).type() != TokenType.EOF) {
+            bh.consume(token);
+        }
+    }
+}
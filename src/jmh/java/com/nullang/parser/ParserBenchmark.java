@@ -0,0 +1,55 @@
+package com.nullang.parser;
+
+import com.nullang.ast.Program;
+import com.nullang.lexer.Lexer;
+import com.nullang.lexer.TokenArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"100", "5000"})
+    private int statements;
+
+    private char[] source;
+    private TokenArray tokens;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < statements; i++) {
+            sb.append("let f").append(i % 26).append(" = fn(a, b) { if (a * 2 + b < b / 3 - 1) { a[0] } else { !b == true } };\n");
+            sb.append("f").append(i % 26).append("([1, 2 + 3, -4][1], \"x\") != (7 - 8) * 9 > 10;\n");
+        }
+        source = sb.toString().toCharArray();
+        tokens = TokenArray.tokenize(source);
+    }
+
+    /** Lexing plus parsing, as on the request path. */
+    @Benchmark
+    public Program lexAndParse() {
+        return new Parser(new Lexer(source)).parseProgram();
+    }
+
+    /** Parsing alone, from a pre-lexed token array. */
+    @Benchmark
+    public Program parseTokenArray() {
+        return new Parser(tokens.cursor()).parseProgram();
+    }
+}
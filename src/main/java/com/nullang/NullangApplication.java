@@ -1,19 +1,18 @@
 package com.nullang;
 
 import com.nullang.ast.Program;
-import com.nullang.eval.Env;
-import com.nullang.eval.Eval;
+import com.nullang.engine.Engine;
 import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
 import com.nullang.parser.Parser;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.Scanner;
 public class NullangApplication {
 
     public static void main(String[] args) throws IOException {
         Scanner sc = new Scanner(System.in);
-        var env = new Env();
+        var engine = Engine.fromSystemProperty();
 
         System.out.println("Enter code to parse:");
         while (true) {
@@ -24,16 +23,19 @@ public class NullangApplication {
             if (input.equals("exit")) break;
 
             Program program = parseInput(input);
-            var eval = new Eval();
-            var res = eval.evaluate(program, env);
-            System.out.println("Evaluated: " + res.inspect());
+            var res = engine.run(program);
+            if (res instanceof ErrorObject error) {
+                System.out.println("Evaluated: " + error.inspect() + " at " + error.location());
+            } else {
+                System.out.println("Evaluated: " + res.inspect());
+            }
         }
 
         sc.close();
     }
 
     public static Program parseInput(String input) throws IOException {
-        try (Lexer lexer = new Lexer(new StringReader(input));
+        try (Lexer lexer = new Lexer(input);
                 Parser parser = new Parser(lexer)) {
 
             return parser.parseProgram();
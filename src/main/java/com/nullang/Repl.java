@@ -1,27 +1,70 @@
 package com.nullang;
 
 import com.nullang.ast.Program;
+import com.nullang.cache.AstCache;
+import com.nullang.engine.Engine;
 import com.nullang.eval.Env;
 import com.nullang.eval.Eval;
 import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.NullangObject;
 import com.nullang.parser.Parser;
 
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 
 public class Repl {
+    private static final Path DEFAULT_SCRIPT = Path.of("../resources/file.null");
 
     public static void main(String[] args) throws IOException {
-        var eval = new Eval();
-        File nullangFile = new File("../resources/file.null");
-        FileReader reader = new FileReader(nullangFile);
+        boolean cache = false;
+        boolean stream = false;
+        String engine = System.getProperty(Engine.PROPERTY, "eval");
+        Path script = DEFAULT_SCRIPT;
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                engine = arg.substring("--engine=".length());
+                continue;
+            }
+            switch (arg) {
+                case "--cache" -> cache = true;
+                case "--stream" -> stream = true;
+                default -> script = Path.of(arg);
+            }
+        }
+
+        if (stream && !engine.equals("eval")) {
+            throw new IllegalArgumentException("--stream runs on the tree-walking evaluator only, not --engine=" + engine);
+        }
+        if (stream && cache) {
+            throw new IllegalArgumentException("--stream parses as it runs and cannot be combined with --cache");
+        }
 
-        try (Lexer lexer = new Lexer(reader)) {
-            Program program = new Parser(lexer).parseProgram();
-            var res = eval.evaluate(program, new Env());
+        NullangObject res;
+        if (stream) {
+            res = evaluateStreaming(script);
+        } else {
+            Program program = cache ? AstCache.load(script) : parse(script);
+            res = Engine.named(engine).run(program);
+        }
 
+        if (res instanceof ErrorObject error) {
+            System.out.println("Evaluated: " + error.inspect() + " at " + error.location());
+        } else {
             System.out.println("Evaluated: " + res.inspect());
         }
     }
+
+    private static NullangObject evaluateStreaming(Path script) throws IOException {
+        try (Lexer lexer = Lexer.mapped(script);
+             Parser parser = new Parser(lexer)) {
+            return new Eval().evaluateStreaming(parser, new Env());
+        }
+    }
+
+    private static Program parse(Path script) throws IOException {
+        try (Lexer lexer = Lexer.mapped(script)) {
+            return new Parser(lexer).parseProgram();
+        }
+    }
 }
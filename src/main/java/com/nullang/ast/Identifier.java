@@ -4,8 +4,15 @@ import com.nullang.ast.expression.Expression;
 import com.nullang.token.Token;
 
 public class Identifier implements Expression {
+    public static final int UNRESOLVED = -1;
+    public static final int GLOBAL = -2;
+    /** A builtin's name that no local shadows; the slot is its index in the builtin registry. */
+    public static final int BUILTIN = -3;
+
     private final Token token;
     private final String value;
+    private int depth = UNRESOLVED;
+    private int slot = -1;
 
     public Identifier(Token token, String value) {
         this.token = token;
@@ -16,6 +23,24 @@ public class Identifier implements Expression {
         return value;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
+    /** Number of function frames between the use and the declaring frame, or {@link #UNRESOLVED}/{@link #GLOBAL}/{@link #BUILTIN}. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void resolve(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
     @Override
     public String getTokenLiteral() {
         return token.literal();
@@ -1,21 +1,33 @@
 package com.nullang.ast;
 
 import com.nullang.ast.expression.Expression;
+import com.nullang.nullangobject.IntegerObject;
 import com.nullang.token.Token;
 
 public class IntegerIdentifier implements Expression {
     private final Token token;
     private final Integer value;
+    private final IntegerObject object;
 
     public IntegerIdentifier(Token token, Integer value) {
         this.token = token;
         this.value = value;
+        this.object = value == null ? null : IntegerObject.valueOf(value);
+    }
+
+    public Token getToken() {
+        return token;
     }
 
     public Integer getValue() {
         return value;
     }
 
+    /** The literal's runtime value, created once at parse time. */
+    public IntegerObject getObject() {
+        return object;
+    }
+
     @Override
     public String getTokenLiteral() {
         return token.literal();
@@ -0,0 +1,74 @@
+package com.nullang.ast;
+
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+
+import java.util.function.Consumer;
+
+public final class Nodes {
+    private Nodes() {
+    }
+
+    /** Passes each direct child of {@code node} to {@code action} in evaluation order; a missing child may be passed as null. */
+    public static void forEachChild(Node node, Consumer<Node> action) {
+        switch (node) {
+            case null -> {
+            }
+            case Program program -> program.statements.forEach(action);
+            case ExpressionStatement exp -> action.accept(exp.expression());
+            case LetStatement let -> {
+                action.accept(let.getValue());
+                action.accept(let.getName());
+            }
+            case ReturnStatement ret -> action.accept(ret.getReturnValue());
+            case BlockStatement block -> block.getStatements().forEach(action);
+            case PrefixExpression prefix -> action.accept(prefix.getRight());
+            case InfixExpression infix -> {
+                action.accept(infix.getLeft());
+                action.accept(infix.getRight());
+            }
+            case IfExpression ifExpression -> {
+                action.accept(ifExpression.getCondition());
+                action.accept(ifExpression.getConsequence());
+                ifExpression.getAlternative().ifPresent(action);
+            }
+            case FnExpression fn -> {
+                fn.parameters().forEach(action);
+                action.accept(fn.body());
+            }
+            case CallExpression call -> {
+                action.accept(call.function());
+                call.arguments().forEach(action);
+            }
+            case ArrayExpression array -> array.elements().forEach(action);
+            case HashExpression hash -> {
+                for (int i = 0; i < hash.keys().size(); i++) {
+                    action.accept(hash.keys().get(i));
+                    action.accept(hash.values().get(i));
+                }
+            }
+            case IndexExpression index -> {
+                action.accept(index.getLeft());
+                action.accept(index.getIndex());
+            }
+            case SliceExpression slice -> {
+                action.accept(slice.left());
+                action.accept(slice.start());
+                action.accept(slice.end());
+            }
+            default -> {
+            }
+        }
+    }
+}
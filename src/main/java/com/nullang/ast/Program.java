@@ -8,6 +8,15 @@ import java.util.stream.Collectors;
 
 public class Program implements Node {
     public final List<Statement> statements = new ArrayList<>();
+    private boolean resolved;
+
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    public void setResolved(boolean resolved) {
+        this.resolved = resolved;
+    }
 
     @Override
     public String getTokenLiteral() {
@@ -11,6 +11,10 @@ public class BooleanIdentifier implements Expression {
         this.token = token;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
     @Override
     public String getTokenLiteral() {
         return token.toString();
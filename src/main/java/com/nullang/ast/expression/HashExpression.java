@@ -0,0 +1,26 @@
+package com.nullang.ast.expression;
+
+import com.nullang.token.Token;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/** {@code {key: value, ...}}; {@code keys} and {@code values} are parallel lists in source order. */
+public record HashExpression(
+        Token token,
+        List<Expression> keys,
+        List<Expression> values) implements Expression {
+
+    @Override
+    public String toString() {
+        return IntStream.range(0, keys.size())
+                .mapToObj(i -> keys.get(i) + ": " + values.get(i))
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    @Override
+    public String getTokenLiteral() {
+        return token.literal();
+    }
+}
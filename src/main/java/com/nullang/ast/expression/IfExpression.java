@@ -23,6 +23,10 @@ public class IfExpression implements Expression{
         this.consequence = consequence;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
     public Expression getCondition() {
         return condition;
     }
@@ -3,12 +3,17 @@ package com.nullang.ast.expression;
 import com.nullang.token.Token;
 
 public class InfixExpression implements Expression {
+    /** Runtime state an evaluator keeps for this expression; the AST only holds on to it. */
+    public interface Site {
+    }
+
     private final Token token;
-    private final String operator;
+    private final Operator operator;
     private Expression left;
     private Expression right;
+    private Site site;
 
-    public InfixExpression(Token token, String operator) {
+    public InfixExpression(Token token, Operator operator) {
         this.token = token;
         this.operator = operator;
     }
@@ -30,6 +35,10 @@ public class InfixExpression implements Expression {
     }
 
     public String getOperator() {
+        return operator.symbol();
+    }
+
+    public Operator getOperatorKind() {
         return operator;
     }
 
@@ -37,9 +46,17 @@ public class InfixExpression implements Expression {
         return right;
     }
 
+    public Site getSite() {
+        return site;
+    }
+
+    public void setSite(Site site) {
+        this.site = site;
+    }
+
     @Override
     public String toString() {
-        return String.format("(%s %s %s)", left, operator, right);
+        return String.format("(%s %s %s)", left, operator.symbol(), right);
     }
 
     @Override
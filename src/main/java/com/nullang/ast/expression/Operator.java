@@ -0,0 +1,41 @@
+package com.nullang.ast.expression;
+
+import com.nullang.token.TokenType;
+
+/** The operator of a prefix or infix expression, fixed at parse time from its token. */
+public enum Operator {
+    PLUS("+"),
+    MINUS("-"),
+    ASTERISK("*"),
+    SLASH("/"),
+    LT("<"),
+    GT(">"),
+    EQ("=="),
+    NOT_EQ("!="),
+    BANG("!");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public static Operator of(TokenType type) {
+        return switch (type) {
+            case PLUS -> PLUS;
+            case MINUS -> MINUS;
+            case ASTERISK -> ASTERISK;
+            case SLASH -> SLASH;
+            case LT -> LT;
+            case GT -> GT;
+            case EQ -> EQ;
+            case NOT_EQ -> NOT_EQ;
+            case BANG -> BANG;
+            default -> throw new IllegalArgumentException("Not an operator: " + type);
+        };
+    }
+}
@@ -4,10 +4,10 @@ import com.nullang.token.Token;
 
 public class PrefixExpression implements Expression {
     private final Token token;
-    private final String operator;
+    private final Operator operator;
     private Expression right;
 
-    public PrefixExpression(Token token, String operator) {
+    public PrefixExpression(Token token, Operator operator) {
         this.token = token;
         this.operator = operator;
     }
@@ -17,6 +17,10 @@ public class PrefixExpression implements Expression {
     }
 
     public String getOperator() {
+        return operator.symbol();
+    }
+
+    public Operator getOperatorKind() {
         return operator;
     }
 
@@ -30,7 +34,7 @@ public class PrefixExpression implements Expression {
 
     @Override
     public String toString() {
-        return operator + right;
+        return operator.symbol() + right;
     }
 
     @Override
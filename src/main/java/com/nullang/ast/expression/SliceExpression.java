@@ -0,0 +1,35 @@
+package com.nullang.ast.expression;
+
+import com.nullang.token.Token;
+
+/** {@code left[start:end]}; a missing bound is null and means the start or end of the array. */
+public record SliceExpression(
+        Token token,
+        Expression left,
+        Expression start,
+        Expression end) implements Expression {
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("(");
+        builder.append(left.toString());
+        builder.append("[");
+        if (start != null) {
+            builder.append(start);
+        }
+        builder.append(":");
+        if (end != null) {
+            builder.append(end);
+        }
+        builder.append("])");
+
+        return builder.toString();
+    }
+
+    @Override
+    public String getTokenLiteral() {
+        return token.literal();
+    }
+}
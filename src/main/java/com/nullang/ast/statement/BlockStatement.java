@@ -9,11 +9,16 @@ import com.nullang.token.Token;
 public class BlockStatement implements Statement {
     private final Token token;
     private final List<Statement> statements = new ArrayList<>();
+    private String[] slotNames;
 
     public BlockStatement(Token token) {
         this.token = token;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
     public void addStatement(Statement statement) {
         statements.add(statement);
     }
@@ -25,6 +30,15 @@ public class BlockStatement implements Statement {
     public List<Statement>  getStatements() {
         return statements;
     }
+    /** The locals of the function this block is the body of, in slot order; null until resolved. */
+    public String[] getSlotNames() {
+        return slotNames;
+    }
+
+    public void setSlotNames(String[] slotNames) {
+        this.slotNames = slotNames;
+    }
+
     public int statementsSize() {
         return statements.size();
     }
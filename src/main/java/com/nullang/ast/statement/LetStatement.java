@@ -13,6 +13,10 @@ public class LetStatement implements Statement {
         this.token = token;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
     public Identifier getName() {
         return name;
     }
@@ -12,6 +12,10 @@ public class StringIdentifier implements Expression {
         this.value = value;
     }
 
+    public Token getToken() {
+        return token;
+    }
+
     public String getValue() {
         return value;
     }
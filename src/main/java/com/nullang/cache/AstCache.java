@@ -0,0 +1,106 @@
+package com.nullang.cache;
+
+import com.nullang.ast.Program;
+import com.nullang.lexer.Lexer;
+import com.nullang.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Keeps a serialized copy of each parsed script next to it, as {@code <script>.ast}.
+ * The cache file records the SHA-256 of the source it came from, so editing the script
+ * makes the next load parse it again and rewrite the cache.
+ */
+public final class AstCache {
+    private static final Logger log = LoggerFactory.getLogger(AstCache.class);
+    static final String SUFFIX = ".ast";
+
+    private AstCache() {
+    }
+
+    public static Program load(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] hash = sha256(bytes.duplicate());
+            Path cacheFile = cacheFileFor(source);
+
+            Program cached = readCache(cacheFile, hash);
+            if (cached != null) {
+                return cached;
+            }
+
+            try (Lexer lexer = new Lexer(bytes);
+                 Parser parser = new Parser(lexer)) {
+                Program program = parser.parseProgram();
+                writeCache(cacheFile, AstWriter.write(program, lexer.lineIndex(), hash));
+                return program;
+            }
+        }
+    }
+
+    public static Path cacheFileFor(Path source) {
+        return source.resolveSibling(source.getFileName() + SUFFIX);
+    }
+
+    private static Program readCache(Path cacheFile, byte[] hash) {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            AstReader reader = new AstReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            if (!Arrays.equals(reader.sourceHash(), hash)) {
+                log.debug("{} is stale", cacheFile);
+                return null;
+            }
+            return reader.readProgram();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable cache {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Writes through a temporary file so that concurrent loads never see half a cache. */
+    private static void writeCache(Path cacheFile, byte[] data) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cacheFile.toAbsolutePath().getParent(), cacheFile.getFileName().toString(), ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write cache {}: {}", cacheFile, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+        }
+    }
+
+    static byte[] sha256(ByteBuffer bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nullang.cache;
+
+/**
+ * Layout of a serialized program:
+ * <pre>
+ * magic   int      "NLAS"
+ * version short
+ * hash    32 bytes SHA-256 of the source the tree was parsed from
+ * strings varint count, then varint byte length + UTF-8 bytes per string
+ * lines   varint count, then the line starts as varint deltas
+ * program varint statement count, then one node per statement
+ * </pre>
+ * A node is a tag byte, its token and its children in source order. A token is the type ordinal,
+ * the string table index of its literal and its offset plus one, so that -1 fits a varint.
+ */
+final class AstFormat {
+    static final int MAGIC = 0x4E4C4153;
+    static final short VERSION = 4;
+    static final int HASH_LENGTH = 32;
+
+    static final byte NULL = 0;
+    static final byte LET = 1;
+    static final byte RETURN = 2;
+    static final byte EXPRESSION = 3;
+    static final byte BLOCK = 4;
+    static final byte IDENTIFIER = 5;
+    static final byte INTEGER = 6;
+    static final byte STRING = 7;
+    static final byte BOOLEAN = 8;
+    static final byte PREFIX = 9;
+    static final byte INFIX = 10;
+    static final byte IF = 11;
+    static final byte FUNCTION = 12;
+    static final byte CALL = 13;
+    static final byte ARRAY = 14;
+    static final byte INDEX = 15;
+    static final byte SLICE = 16;
+    static final byte HASH = 17;
+
+    private AstFormat() {
+    }
+}
@@ -0,0 +1,9 @@
+package com.nullang.cache;
+
+import java.io.IOException;
+
+public class AstFormatException extends IOException {
+    public AstFormatException(String message) {
+        super(message);
+    }
+}
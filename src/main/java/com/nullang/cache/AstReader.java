@@ -0,0 +1,244 @@
+package com.nullang.cache;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.Operator;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.Statement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.token.LineIndex;
+import com.nullang.token.Token;
+import com.nullang.token.TokenSource;
+import com.nullang.token.TokenType;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds a program written by {@link AstWriter} without going through the lexer or parser.
+ * Every token is recreated from the string table, so equal literals share one {@link String}.
+ */
+public final class AstReader {
+    private final ByteBuffer data;
+    private final byte[] sourceHash;
+    private String[] strings;
+    private TokenSource positions;
+
+    /** Reads and checks the header; the rest is only decoded by {@link #readProgram()}. */
+    public AstReader(ByteBuffer data) throws AstFormatException {
+        this.data = data.duplicate();
+        try {
+            if (this.data.getInt() != AstFormat.MAGIC) {
+                throw new AstFormatException("Not a serialized program");
+            }
+            short version = this.data.getShort();
+            if (version != AstFormat.VERSION) {
+                throw new AstFormatException("Unsupported format version " + version);
+            }
+            this.sourceHash = new byte[AstFormat.HASH_LENGTH];
+            this.data.get(sourceHash);
+        } catch (BufferUnderflowException e) {
+            throw new AstFormatException("Truncated header");
+        }
+    }
+
+    public byte[] sourceHash() {
+        return sourceHash.clone();
+    }
+
+    public Program readProgram() throws AstFormatException {
+        try {
+            readStrings();
+            readLines();
+
+            Program program = new Program();
+            int count = readCount();
+            for (int i = 0; i < count; i++) {
+                program.statements.add(readStatement());
+            }
+            return program;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException | IllegalArgumentException e) {
+            throw new AstFormatException("Corrupt program data: " + e.getMessage());
+        }
+    }
+
+    private void readStrings() {
+        strings = new String[readCount()];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount();
+            byte[] utf8 = new byte[length];
+            data.get(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void readLines() {
+        int[] lineStarts = new int[readCount()];
+        int previous = 0;
+        for (int i = 0; i < lineStarts.length; i++) {
+            previous += readVarint();
+            lineStarts[i] = previous;
+        }
+        positions = TokenSource.positionsOnly(new LineIndex(lineStarts));
+    }
+
+    private Statement readStatement() throws AstFormatException {
+        return (Statement) readNode();
+    }
+
+    private Expression readExpression() throws AstFormatException {
+        return (Expression) readNode();
+    }
+
+    private Object readNode() throws AstFormatException {
+        byte tag = data.get();
+        if (tag == AstFormat.NULL) {
+            return null;
+        }
+
+        Token token = readToken();
+        return switch (tag) {
+            case AstFormat.LET -> {
+                LetStatement let = new LetStatement(token);
+                let.setName((Identifier) readNode());
+                let.setValue(readExpression());
+                yield let;
+            }
+            case AstFormat.RETURN -> {
+                ReturnStatement ret = new ReturnStatement(token);
+                ret.setReturnValue(readExpression());
+                yield ret;
+            }
+            case AstFormat.EXPRESSION ->
+                    new ExpressionStatement(token, readExpression());
+            case AstFormat.BLOCK -> readBlock(token);
+            case AstFormat.IDENTIFIER ->
+                    new Identifier(token, token.literal());
+            case AstFormat.INTEGER ->
+                    new IntegerIdentifier(token, readVarint());
+            case AstFormat.STRING ->
+                    new StringIdentifier(token, token.literal());
+            case AstFormat.BOOLEAN ->
+                    new BooleanIdentifier(token.type() == TokenType.TRUE, token);
+            case AstFormat.PREFIX -> {
+                PrefixExpression prefix = new PrefixExpression(token, Operator.of(token.type()));
+                prefix.setRight(readExpression());
+                yield prefix;
+            }
+            case AstFormat.INFIX -> {
+                InfixExpression infix = new InfixExpression(token, Operator.of(token.type()));
+                infix.setLeft(readExpression());
+                infix.setRight(readExpression());
+                yield infix;
+            }
+            case AstFormat.IF -> {
+                Expression condition = readExpression();
+                BlockStatement consequence = (BlockStatement) readNode();
+                BlockStatement alternative = (BlockStatement) readNode();
+                yield new IfExpression(token, condition, alternative, consequence);
+            }
+            case AstFormat.FUNCTION -> {
+                int count = readCount();
+                List<Identifier> parameters = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    parameters.add((Identifier) readNode());
+                }
+                yield new FnExpression(token, parameters, (BlockStatement) readNode());
+            }
+            case AstFormat.CALL -> {
+                Expression function = readExpression();
+                yield new CallExpression(token, function, readExpressions());
+            }
+            case AstFormat.ARRAY ->
+                    new ArrayExpression(token, readExpressions());
+            case AstFormat.HASH -> {
+                List<Expression> keys = readExpressions();
+                yield new HashExpression(token, keys, readExpressions());
+            }
+            case AstFormat.INDEX -> {
+                IndexExpression index = new IndexExpression(token, readExpression());
+                index.setIndex(readExpression());
+                yield index;
+            }
+            case AstFormat.SLICE -> {
+                Expression left = readExpression();
+                Expression start = readExpression();
+                yield new SliceExpression(token, left, start, readExpression());
+            }
+            default -> throw new AstFormatException("Unknown node tag " + tag);
+        };
+    }
+
+    private BlockStatement readBlock(Token token) throws AstFormatException {
+        BlockStatement block = new BlockStatement(token);
+        int count = readCount();
+        for (int i = 0; i < count; i++) {
+            block.addStatement(readStatement());
+        }
+        return block;
+    }
+
+    private List<Expression> readExpressions() throws AstFormatException {
+        int count = readCount();
+        List<Expression> expressions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expressions.add(readExpression());
+        }
+        return expressions;
+    }
+
+    private Token readToken() throws AstFormatException {
+        int ordinal = data.get() & 0xFF;
+        if (ordinal >= TokenType.values().length) {
+            throw new AstFormatException("Unknown token type " + ordinal);
+        }
+        String literal = strings[readVarint()];
+        int offset = readVarint() - 1;
+
+        return offset < 0
+                ? new Token(TokenType.ofOrdinal(ordinal), literal)
+                : new Token(TokenType.ofOrdinal(ordinal), literal, offset, positions);
+    }
+
+    /**
+     * A length or element count. Every element takes at least one byte, so a count larger than what
+     * is left can only come from corrupt data; rejecting it here keeps a bad cache from sizing arrays.
+     */
+    private int readCount() {
+        int count = readVarint();
+        if (count < 0 || count > data.remaining()) {
+            throw new IndexOutOfBoundsException("count " + count + " exceeds the " + data.remaining() + " bytes left");
+        }
+        return count;
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = data.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("varint longer than 5 bytes");
+    }
+}
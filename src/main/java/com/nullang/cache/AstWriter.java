@@ -0,0 +1,205 @@
+package com.nullang.cache;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.Statement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.token.LineIndex;
+import com.nullang.token.Token;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Serializes a parsed program into the format described by {@link AstFormat}. */
+public final class AstWriter {
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteArrayOutputStream nodes = new ByteArrayOutputStream(4096);
+
+    private AstWriter() {
+    }
+
+    public static byte[] write(Program program, LineIndex lines, byte[] sourceHash) {
+        if (sourceHash.length != AstFormat.HASH_LENGTH) {
+            throw new IllegalArgumentException("Expected a SHA-256 hash, got " + sourceHash.length + " bytes");
+        }
+
+        AstWriter writer = new AstWriter();
+        writeVarint(writer.nodes, program.statements.size());
+        for (Statement statement : program.statements) {
+            writer.writeNode(statement);
+        }
+
+        return writer.finish(lines == null ? new int[0] : lines.lineStarts(), sourceHash);
+    }
+
+    private byte[] finish(int[] lineStarts, byte[] sourceHash) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(nodes.size() + strings.size() * 8 + 64);
+        writeInt(out, AstFormat.MAGIC);
+        out.write(AstFormat.VERSION >>> 8);
+        out.write(AstFormat.VERSION);
+        out.writeBytes(sourceHash);
+
+        writeVarint(out, strings.size());
+        for (String string : strings) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, utf8.length);
+            out.writeBytes(utf8);
+        }
+
+        writeVarint(out, lineStarts.length);
+        int previous = 0;
+        for (int lineStart : lineStarts) {
+            writeVarint(out, lineStart - previous);
+            previous = lineStart;
+        }
+
+        out.writeBytes(nodes.toByteArray());
+        return out.toByteArray();
+    }
+
+    private void writeNode(Node node) {
+        switch (node) {
+            case null -> nodes.write(AstFormat.NULL);
+            case LetStatement let -> {
+                tag(AstFormat.LET, let.getToken());
+                writeNode(let.getName());
+                writeNode(let.getValue());
+            }
+            case ReturnStatement ret -> {
+                tag(AstFormat.RETURN, ret.getToken());
+                writeNode(ret.getReturnValue());
+            }
+            case ExpressionStatement exp -> {
+                tag(AstFormat.EXPRESSION, exp.token());
+                writeNode(exp.expression());
+            }
+            case BlockStatement block -> {
+                tag(AstFormat.BLOCK, block.getToken());
+                writeVarint(nodes, block.statementsSize());
+                for (Statement statement : block.getStatements()) {
+                    writeNode(statement);
+                }
+            }
+            case Identifier identifier ->
+                    tag(AstFormat.IDENTIFIER, identifier.getToken());
+            case IntegerIdentifier integer -> {
+                tag(AstFormat.INTEGER, integer.getToken());
+                writeVarint(nodes, integer.getValue());
+            }
+            case StringIdentifier string ->
+                    tag(AstFormat.STRING, string.getToken());
+            case BooleanIdentifier bool ->
+                    tag(AstFormat.BOOLEAN, bool.getToken());
+            case PrefixExpression prefix -> {
+                tag(AstFormat.PREFIX, prefix.getToken());
+                writeNode(prefix.getRight());
+            }
+            case InfixExpression infix -> {
+                tag(AstFormat.INFIX, infix.getToken());
+                writeNode(infix.getLeft());
+                writeNode(infix.getRight());
+            }
+            case IfExpression ifExpression -> {
+                tag(AstFormat.IF, ifExpression.getToken());
+                writeNode(ifExpression.getCondition());
+                writeNode(ifExpression.getConsequence());
+                writeNode(ifExpression.getAlternative().orElse(null));
+            }
+            case FnExpression fn -> {
+                tag(AstFormat.FUNCTION, fn.token());
+                writeVarint(nodes, fn.parameters().size());
+                for (Identifier parameter : fn.parameters()) {
+                    writeNode(parameter);
+                }
+                writeNode(fn.body());
+            }
+            case CallExpression call -> {
+                tag(AstFormat.CALL, call.token());
+                writeNode(call.function());
+                writeExpressions(call.arguments());
+            }
+            case ArrayExpression array -> {
+                tag(AstFormat.ARRAY, array.token());
+                writeExpressions(array.elements());
+            }
+            case HashExpression hash -> {
+                tag(AstFormat.HASH, hash.token());
+                writeExpressions(hash.keys());
+                writeExpressions(hash.values());
+            }
+            case IndexExpression index -> {
+                tag(AstFormat.INDEX, index.getToken());
+                writeNode(index.getLeft());
+                writeNode(index.getIndex());
+            }
+            case SliceExpression slice -> {
+                tag(AstFormat.SLICE, slice.token());
+                writeNode(slice.left());
+                writeNode(slice.start());
+                writeNode(slice.end());
+            }
+            default -> throw new IllegalArgumentException("Cannot serialize " + node.getClass().getSimpleName());
+        }
+    }
+
+    private void writeExpressions(List<Expression> expressions) {
+        writeVarint(nodes, expressions.size());
+        for (Expression expression : expressions) {
+            writeNode(expression);
+        }
+    }
+
+    private void tag(byte tag, Token token) {
+        nodes.write(tag);
+        nodes.write(token.type().ordinal());
+        writeVarint(nodes, string(token.literal()));
+        writeVarint(nodes, token.offset() + 1);
+    }
+
+    private int string(String value) {
+        Integer index = stringIndex.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            stringIndex.put(value, index);
+        }
+        return index;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
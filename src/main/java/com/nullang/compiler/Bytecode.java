@@ -0,0 +1,13 @@
+package com.nullang.compiler;
+
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * The output of one {@link Compiler#compile} call. Constant and global indices are stable across
+ * calls on the same compiler, so later programs can use functions and globals from earlier ones.
+ */
+public record Bytecode(
+        CompiledFunction main,
+        NullangObject[] constants,
+        String[] globalNames) {
+}
@@ -0,0 +1,42 @@
+package com.nullang.compiler;
+
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+import com.nullang.token.Token;
+
+import java.util.Arrays;
+
+/**
+ * A function body compiled to bytecode; a constant that the VM turns into a closure.
+ * {@code positionIps} and {@code positionTokens} map the instructions that can fail to the
+ * tokens they came from, so runtime errors keep their source position.
+ */
+public record CompiledFunction(
+        byte[] instructions,
+        int maxStack,
+        int[] parameterSlots,
+        String[] slotNames,
+        String source,
+        int[] positionIps,
+        Token[] positionTokens) implements NullangObject {
+
+    public int numLocals() {
+        return slotNames.length;
+    }
+
+    /** The token of the instruction starting at {@code ip}, or null if none was recorded. */
+    public Token tokenAt(int ip) {
+        int index = Arrays.binarySearch(positionIps, ip);
+        return index >= 0 ? positionTokens[index] : null;
+    }
+
+    @Override
+    public ObjectType type() {
+        return ObjectType.FUNCTION;
+    }
+
+    @Override
+    public String inspect() {
+        return source;
+    }
+}
@@ -0,0 +1,407 @@
+package com.nullang.compiler;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.Nodes;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.Operator;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.Statement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.compiler.errors.CompilerException;
+import com.nullang.eval.Builtins;
+import com.nullang.eval.Resolver;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.StringObject;
+import com.nullang.token.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a program to bytecode for the {@link com.nullang.vm.Vm}. Variables are addressed the way
+ * the {@link Resolver} laid them out: function locals by frame slot, everything else as a global.
+ * Globals and constants persist across {@link #compile} calls, as a REPL needs.
+ */
+public class Compiler {
+    private final List<NullangObject> constants = new ArrayList<>();
+    private final Map<Integer, Integer> integerConstants = new HashMap<>();
+    private final Map<String, Integer> globals = new HashMap<>();
+    private final List<String> globalNames = new ArrayList<>();
+    private FunctionBuilder function;
+
+    public Bytecode compile(Program program) {
+        Resolver.resolve(program);
+        declareGlobals(program);
+
+        function = new FunctionBuilder();
+        for (Statement statement : program.statements) {
+            compile(statement);
+        }
+        CompiledFunction main = function.build(new int[0], new String[0], "main");
+        function = null;
+
+        return new Bytecode(main, constants.toArray(NullangObject[]::new), globalNames.toArray(String[]::new));
+    }
+
+    /** Top-level lets become globals up front, so that earlier uses do not bind to a builtin of the same name. */
+    private void declareGlobals(Node node) {
+        switch (node) {
+            case null -> {
+            }
+            case FnExpression fn -> {
+            }
+            case LetStatement let -> {
+                globalIndex(let.getName().getValue());
+                declareGlobals(let.getValue());
+            }
+            default -> Nodes.forEachChild(node, this::declareGlobals);
+        }
+    }
+
+    private void compile(Node node) {
+        switch (node) {
+            case ExpressionStatement exp -> {
+                compile(exp.expression());
+                function.emit(Opcode.POP);
+            }
+            case LetStatement let -> {
+                compile(let.getValue());
+                store(let.getName());
+            }
+            case ReturnStatement ret -> {
+                compileOrNull(ret.getReturnValue());
+                function.emit(Opcode.RETURN_VALUE);
+            }
+            case IntegerIdentifier integer ->
+                    function.emit(Opcode.CONSTANT, integerConstant(integer.getValue()));
+            case StringIdentifier string ->
+                    function.emit(Opcode.CONSTANT, addConstant(new StringObject(string.getValue())));
+            case BooleanIdentifier bool ->
+                    function.emit(bool.getValue() ? Opcode.TRUE : Opcode.FALSE);
+            case Identifier identifier -> load(identifier);
+            case PrefixExpression prefix -> {
+                compile(prefix.getRight());
+                function.mark(prefix.getToken());
+                function.emit(switch (prefix.getOperatorKind()) {
+                    case BANG -> Opcode.BANG;
+                    case MINUS -> Opcode.MINUS;
+                    default -> throw new CompilerException("Unknown prefix operator " + prefix.getOperator());
+                });
+            }
+            case InfixExpression infix -> {
+                compile(infix.getLeft());
+                compile(infix.getRight());
+                function.mark(infix.getToken());
+                function.emit(infixOpcode(infix.getOperatorKind()));
+            }
+            case IfExpression ifExpression -> compileIf(ifExpression);
+            case FnExpression fn -> compileFunction(fn);
+            case CallExpression call -> {
+                compile(call.function());
+                for (Expression argument : call.arguments()) {
+                    compile(argument);
+                }
+                function.mark(call.token());
+                function.emit(Opcode.CALL, checkByte(call.arguments().size(), "arguments"));
+            }
+            case ArrayExpression array -> {
+                for (Expression element : array.elements()) {
+                    compile(element);
+                }
+                function.emit(Opcode.ARRAY, checkShort(array.elements().size(), "array elements"));
+            }
+            case HashExpression hash -> {
+                for (int i = 0; i < hash.keys().size(); i++) {
+                    compile(hash.keys().get(i));
+                    compile(hash.values().get(i));
+                }
+                function.mark(hash.token());
+                function.emit(Opcode.HASH, checkShort(hash.keys().size(), "hash entries"));
+            }
+            case IndexExpression index -> {
+                compile(index.getLeft());
+                compileOrNull(index.getIndex());
+                function.mark(index.getToken());
+                function.emit(Opcode.INDEX);
+            }
+            case SliceExpression slice -> {
+                compile(slice.left());
+                int bounds = 0;
+                if (slice.start() != null) {
+                    compile(slice.start());
+                    bounds |= Opcode.SLICE_START;
+                }
+                if (slice.end() != null) {
+                    compile(slice.end());
+                    bounds |= Opcode.SLICE_END;
+                }
+                function.mark(slice.token());
+                function.emit(Opcode.SLICE, bounds);
+            }
+            default -> throw new CompilerException("Cannot compile " + node.getClass().getSimpleName());
+        }
+    }
+
+    private void compileOrNull(Node node) {
+        if (node == null) {
+            function.emit(Opcode.NULL);
+        } else {
+            compile(node);
+        }
+    }
+
+    private void compileIf(IfExpression ifExpression) {
+        compile(ifExpression.getCondition());
+        int jumpNotTruthy = function.emit(Opcode.JUMP_NOT_TRUTHY, 0);
+        int depth = function.depth;
+
+        compileBlockValue(ifExpression.getConsequence());
+        int jump = function.emit(Opcode.JUMP, 0);
+        function.patchJump(jumpNotTruthy);
+
+        function.depth = depth;
+        if (ifExpression.getAlternative().isPresent()) {
+            compileBlockValue(ifExpression.getAlternative().get());
+        } else {
+            function.emit(Opcode.NULL);
+        }
+        function.patchJump(jump);
+    }
+
+    /** Compiles a block so that it leaves the value of its last statement on the stack, as Eval returns it. */
+    private void compileBlockValue(BlockStatement block) {
+        List<Statement> statements = block.getStatements();
+        if (statements.isEmpty()) {
+            function.emit(Opcode.NULL);
+            return;
+        }
+
+        for (Statement statement : statements) {
+            compile(statement);
+        }
+
+        switch (statements.getLast()) {
+            case ExpressionStatement exp -> function.removeLastPop();
+            case LetStatement let -> load(let.getName());
+            default -> {
+            }
+        }
+    }
+
+    private void compileFunction(FnExpression fn) {
+        FunctionBuilder enclosing = function;
+        function = new FunctionBuilder();
+
+        compileBlockValue(fn.body());
+        function.emit(Opcode.RETURN_VALUE);
+        function.markTailCalls();
+
+        String[] slotNames = fn.body().getSlotNames();
+        checkByte(slotNames.length, "locals");
+        int[] parameterSlots = fn.parameters().stream().mapToInt(Identifier::getSlot).toArray();
+        CompiledFunction compiled = function.build(parameterSlots, slotNames, "fn(" + fn.parameters() + "{" + fn.body() + "}");
+
+        function = enclosing;
+        function.emit(Opcode.CLOSURE, addConstant(compiled));
+    }
+
+    private void load(Identifier identifier) {
+        int depth = identifier.getDepth();
+        if (depth == 0) {
+            function.mark(identifier.getToken());
+            function.emit(Opcode.GET_LOCAL, identifier.getSlot());
+        } else if (depth > 0) {
+            function.mark(identifier.getToken());
+            function.emit(Opcode.GET_OUTER, checkByte(depth, "nested functions"), identifier.getSlot());
+        } else {
+            String name = identifier.getValue();
+            int builtin = Builtins.indexOf(name);
+            if (builtin >= 0 && builtin <= 0xFF && !globals.containsKey(name)) {
+                function.emit(Opcode.GET_BUILTIN, builtin);
+            } else {
+                function.mark(identifier.getToken());
+                function.emit(Opcode.GET_GLOBAL, globalIndex(name));
+            }
+        }
+    }
+
+    private void store(Identifier identifier) {
+        if (identifier.getDepth() >= 0) {
+            function.emit(Opcode.SET_LOCAL, identifier.getSlot());
+        } else {
+            function.emit(Opcode.SET_GLOBAL, globalIndex(identifier.getValue()));
+        }
+    }
+
+    private int globalIndex(String name) {
+        Integer index = globals.get(name);
+        if (index == null) {
+            index = checkShort(globalNames.size(), "globals");
+            globals.put(name, index);
+            globalNames.add(name);
+        }
+        return index;
+    }
+
+    private int integerConstant(int value) {
+        Integer index = integerConstants.get(value);
+        if (index == null) {
+            index = addConstant(IntegerObject.valueOf(value));
+            integerConstants.put(value, index);
+        }
+        return index;
+    }
+
+    private int addConstant(NullangObject constant) {
+        constants.add(constant);
+        return checkShort(constants.size() - 1, "constants");
+    }
+
+    private static Opcode infixOpcode(Operator operator) {
+        return switch (operator) {
+            case PLUS -> Opcode.ADD;
+            case MINUS -> Opcode.SUB;
+            case ASTERISK -> Opcode.MUL;
+            case SLASH -> Opcode.DIV;
+            case EQ -> Opcode.EQUAL;
+            case NOT_EQ -> Opcode.NOT_EQUAL;
+            case LT -> Opcode.LESS_THAN;
+            case GT -> Opcode.GREATER_THAN;
+            default -> throw new CompilerException("Unknown infix operator " + operator.symbol());
+        };
+    }
+
+    private static int checkByte(int value, String what) {
+        if (value > 0xFF) {
+            throw new CompilerException("Too many " + what + ": " + value + ", at most 255 are supported");
+        }
+        return value;
+    }
+
+    private static int checkShort(int value, String what) {
+        if (value > 0xFFFF) {
+            throw new CompilerException("Too many " + what + ": " + value + ", at most 65535 are supported");
+        }
+        return value;
+    }
+
+    /** Instructions of the function being compiled, with the operand stack depth tracked as they are emitted. */
+    private static final class FunctionBuilder {
+        private byte[] code = new byte[64];
+        private int length;
+        private int lastOpcode = -1;
+        private int depth;
+        private int maxDepth;
+        private int[] positionIps = new int[8];
+        private Token[] positionTokens = new Token[8];
+        private int positions;
+
+        int emit(Opcode opcode, int... operands) {
+            int start = length;
+            ensureCapacity(opcode.length());
+            code[length++] = (byte) opcode.ordinal();
+            for (int i = 0; i < operands.length; i++) {
+                int width = opcode.operandWidth(i);
+                for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+                    code[length++] = (byte) (operands[i] >>> shift);
+                }
+            }
+            lastOpcode = start;
+
+            depth += stackEffect(opcode, operands);
+            maxDepth = Math.max(maxDepth, depth);
+            return start;
+        }
+
+        /** Records the token of the next instruction, for error positions. */
+        void mark(Token token) {
+            if (positions == positionIps.length) {
+                positionIps = Arrays.copyOf(positionIps, positions * 2);
+                positionTokens = Arrays.copyOf(positionTokens, positions * 2);
+            }
+            positionIps[positions] = length;
+            positionTokens[positions] = token;
+            positions++;
+        }
+
+        void patchJump(int jump) {
+            int target = length;
+            for (int i = 0; i < 4; i++) {
+                code[jump + 1 + i] = (byte) (target >>> (24 - i * 8));
+            }
+        }
+
+        void removeLastPop() {
+            if (lastOpcode >= 0 && code[lastOpcode] == Opcode.POP.ordinal()) {
+                length = lastOpcode;
+                lastOpcode = -1;
+                depth++;
+            }
+        }
+
+        /**
+         * Turns every {@code CALL} that is followed by {@code RETURN_VALUE}, directly or through jumps,
+         * into {@code TAIL_CALL}. Only function bodies do this; a return from the main program ends it.
+         */
+        void markTailCalls() {
+            for (int ip = 0; ip < length; ip += Opcode.ofCode(code[ip]).length()) {
+                if (code[ip] == Opcode.CALL.ordinal() && returnsAt(ip + Opcode.CALL.length())) {
+                    code[ip] = (byte) Opcode.TAIL_CALL.ordinal();
+                }
+            }
+        }
+
+        private boolean returnsAt(int ip) {
+            // Jumps only go forward, so following them always ends.
+            while (ip < length && code[ip] == Opcode.JUMP.ordinal()) {
+                ip = Instructions.readI32(code, ip + 1);
+            }
+            return ip < length && code[ip] == Opcode.RETURN_VALUE.ordinal();
+        }
+
+        CompiledFunction build(int[] parameterSlots, String[] slotNames, String source) {
+            return new CompiledFunction(Arrays.copyOf(code, length), maxDepth, parameterSlots, slotNames, source,
+                    Arrays.copyOf(positionIps, positions), Arrays.copyOf(positionTokens, positions));
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > code.length) {
+                code = Arrays.copyOf(code, Math.max(code.length * 2, length + extra));
+            }
+        }
+
+        /** Return is counted as leaving its value on the stack, which can only overestimate the maximum. */
+        private static int stackEffect(Opcode opcode, int[] operands) {
+            return switch (opcode) {
+                case CONSTANT, TRUE, FALSE, NULL, GET_GLOBAL, GET_LOCAL, GET_OUTER, GET_BUILTIN, CLOSURE -> 1;
+                case POP, ADD, SUB, MUL, DIV, EQUAL, NOT_EQUAL, LESS_THAN, GREATER_THAN,
+                     JUMP_NOT_TRUTHY, SET_GLOBAL, SET_LOCAL, INDEX -> -1;
+                case SLICE -> -Integer.bitCount(operands[0]);
+                case MINUS, BANG, JUMP, RETURN_VALUE -> 0;
+                case ARRAY -> 1 - operands[0];
+                case HASH -> 1 - 2 * operands[0];
+                case CALL, TAIL_CALL -> -operands[0];
+            };
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nullang.compiler;
+
+/** Reading and printing of encoded instructions. */
+public final class Instructions {
+    private Instructions() {
+    }
+
+    public static int readOperand(byte[] code, int offset, int width) {
+        return switch (width) {
+            case 1 -> code[offset] & 0xFF;
+            case 2 -> readU16(code, offset);
+            case 4 -> readI32(code, offset);
+            default -> throw new IllegalArgumentException("Unsupported operand width " + width);
+        };
+    }
+
+    public static int readU16(byte[] code, int offset) {
+        return (code[offset] & 0xFF) << 8 | code[offset + 1] & 0xFF;
+    }
+
+    public static int readI32(byte[] code, int offset) {
+        return code[offset] << 24 | (code[offset + 1] & 0xFF) << 16 | (code[offset + 2] & 0xFF) << 8 | code[offset + 3] & 0xFF;
+    }
+
+    /** One line per instruction, e.g. {@code 0003 GET_OUTER 1 0}. */
+    public static String disassemble(byte[] code) {
+        StringBuilder builder = new StringBuilder();
+        int ip = 0;
+        while (ip < code.length) {
+            Opcode opcode = Opcode.ofCode(code[ip]);
+            builder.append(String.format("%04d %s", ip, opcode));
+
+            int offset = ip + 1;
+            for (int i = 0; i < opcode.operandCount(); i++) {
+                builder.append(' ').append(readOperand(code, offset, opcode.operandWidth(i)));
+                offset += opcode.operandWidth(i);
+            }
+            builder.append('\n');
+            ip = offset;
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.nullang.compiler;
+
+/**
+ * One-byte instructions for the {@link com.nullang.vm.Vm}. Each opcode is followed by its operands,
+ * big-endian, with the widths given here.
+ */
+public enum Opcode {
+    CONSTANT(2),
+    POP,
+    TRUE,
+    FALSE,
+    NULL,
+
+    ADD,
+    SUB,
+    MUL,
+    DIV,
+    EQUAL,
+    NOT_EQUAL,
+    LESS_THAN,
+    GREATER_THAN,
+    MINUS,
+    BANG,
+
+    JUMP(4),
+    JUMP_NOT_TRUTHY(4),
+
+    GET_GLOBAL(2),
+    SET_GLOBAL(2),
+    GET_LOCAL(1),
+    SET_LOCAL(1),
+    /** Reads slot {@code operand[1]} of the frame {@code operand[0]} closures out. */
+    GET_OUTER(1, 1),
+    GET_BUILTIN(1),
+
+    ARRAY(2),
+    /** Builds a hash from {@code operand} key/value pairs, each key pushed before its value. */
+    HASH(2),
+    INDEX,
+    /** The operand says which bounds are on the stack above the array: {@link #SLICE_START}, {@link #SLICE_END}. */
+    SLICE(1),
+
+    CLOSURE(2),
+    CALL(1),
+    /** A {@link #CALL} whose result the caller returns at once, so the callee takes over the caller's frame. */
+    TAIL_CALL(1),
+    RETURN_VALUE;
+
+    public static final int SLICE_START = 1;
+    public static final int SLICE_END = 2;
+
+    private static final Opcode[] VALUES = values();
+
+    private final int[] operandWidths;
+
+    Opcode(int... operandWidths) {
+        this.operandWidths = operandWidths;
+    }
+
+    public int[] operandWidths() {
+        return operandWidths.clone();
+    }
+
+    public int operandCount() {
+        return operandWidths.length;
+    }
+
+    public int operandWidth(int operand) {
+        return operandWidths[operand];
+    }
+
+    /** Total length of the instruction, opcode included. */
+    public int length() {
+        int length = 1;
+        for (int width : operandWidths) {
+            length += width;
+        }
+        return length;
+    }
+
+    public static Opcode ofCode(byte code) {
+        return VALUES[code & 0xFF];
+    }
+}
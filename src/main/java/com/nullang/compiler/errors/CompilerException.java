@@ -0,0 +1,7 @@
+package com.nullang.compiler.errors;
+
+public class CompilerException extends RuntimeException {
+    public CompilerException(String message) {
+        super(message);
+    }
+}
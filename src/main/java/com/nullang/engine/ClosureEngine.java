@@ -0,0 +1,16 @@
+package com.nullang.engine;
+
+import com.nullang.ast.Program;
+import com.nullang.eval.ClosureCompiler;
+import com.nullang.eval.Env;
+import com.nullang.nullangobject.NullangObject;
+
+public class ClosureEngine implements Engine {
+    private final ClosureCompiler compiler = new ClosureCompiler();
+    private final Env env = new Env();
+
+    @Override
+    public NullangObject run(Program program) {
+        return compiler.compile(program).execute(env);
+    }
+}
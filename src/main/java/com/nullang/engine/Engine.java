@@ -0,0 +1,34 @@
+package com.nullang.engine;
+
+import com.nullang.ast.Program;
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * Runs programs against state kept between runs, so that a REPL can define something in one
+ * program and use it in the next. Pick one with {@link #named} or the {@code nullang.engine}
+ * system property.
+ */
+public interface Engine {
+    String PROPERTY = "nullang.engine";
+
+    NullangObject run(Program program);
+
+    /**
+     * {@code eval} for the tree-walking evaluator, {@code stack} for the evaluator that keeps its
+     * stack on the heap, {@code closure} for the closure compiler, {@code vm} for the bytecode
+     * compiler and VM.
+     */
+    static Engine named(String name) {
+        return switch (name) {
+            case "eval" -> new TreeWalkingEngine();
+            case "stack" -> new StackEngine();
+            case "closure" -> new ClosureEngine();
+            case "vm" -> new VmEngine();
+            default -> throw new IllegalArgumentException("Unknown engine '" + name + "', expected eval, stack, closure or vm");
+        };
+    }
+
+    static Engine fromSystemProperty() {
+        return named(System.getProperty(PROPERTY, "eval"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.nullang.engine;
+
+import com.nullang.ast.Program;
+import com.nullang.eval.Env;
+import com.nullang.eval.StackEval;
+import com.nullang.nullangobject.NullangObject;
+
+public class StackEngine implements Engine {
+    private final StackEval eval = new StackEval();
+    private final Env env = new Env();
+
+    @Override
+    public NullangObject run(Program program) {
+        return eval.evaluate(program, env);
+    }
+}
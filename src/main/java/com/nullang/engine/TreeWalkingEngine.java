@@ -0,0 +1,24 @@
+package com.nullang.engine;
+
+import com.nullang.ast.Program;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.nullangobject.NullangObject;
+
+public class TreeWalkingEngine implements Engine {
+    private final Eval eval = new Eval();
+    private final Env env;
+
+    public TreeWalkingEngine() {
+        this(new Env());
+    }
+
+    public TreeWalkingEngine(Env env) {
+        this.env = env;
+    }
+
+    @Override
+    public NullangObject run(Program program) {
+        return eval.evaluate(program, env);
+    }
+}
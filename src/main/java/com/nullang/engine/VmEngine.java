@@ -0,0 +1,16 @@
+package com.nullang.engine;
+
+import com.nullang.ast.Program;
+import com.nullang.compiler.Compiler;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.vm.Vm;
+
+public class VmEngine implements Engine {
+    private final Compiler compiler = new Compiler();
+    private final Vm vm = new Vm();
+
+    @Override
+    public NullangObject run(Program program) {
+        return vm.run(compiler.compile(program));
+    }
+}
@@ -0,0 +1,165 @@
+package com.nullang.eval;
+
+import com.nullang.nullangobject.ArrayObject;
+import com.nullang.nullangobject.BuiltinFunctionObject;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.HashObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+import com.nullang.nullangobject.StringObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The registry of built-in functions, shared by every engine. Each builtin is one shared
+ * object, so a resolved reference costs an array read.
+ */
+public final class Builtins {
+    private static final NullangObject NULL = NullObject.NULL;
+
+    private static final Map<String, Function<List<NullangObject>, NullangObject>> FUNCTIONS =
+            Map.of(
+                    "len", args -> {
+                        if (args.size() != 1) {
+                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
+                        }
+
+                        return switch (args.getFirst().type()) {
+                            case STRING ->
+                                    IntegerObject.valueOf(((StringObject) args.getFirst()).length());
+                            case ARRAY -> {
+                                var arr = (ArrayObject) args.getFirst();
+                                yield IntegerObject.valueOf(arr.size());
+                            }
+                            case HASH ->
+                                    IntegerObject.valueOf(((HashObject) args.getFirst()).size());
+                            default ->
+                                    new ErrorObject("argument to `len` not supported, got " + args.get(0).type());
+                        };
+                    },
+                    "puts", args -> {
+                        for (NullangObject arg : args) {
+                            System.out.println(arg.inspect());
+                        }
+
+                        return NULL;
+                    },
+                    "first", args -> {
+                        if (args.size() != 1) {
+                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
+                        }
+
+                        if (args.getFirst().type() == ObjectType.ARRAY) {
+                            var arr = (ArrayObject) args.getFirst();
+                            if (arr.isEmpty()) {
+                                return NULL;
+                            }
+                            return arr.get(0);
+                        } else {
+                            return new ErrorObject("argument to `first` not supported, got " + args.getFirst().type());
+                        }
+                    },
+                    "tail", args -> {
+                        if (args.size() != 1) {
+                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
+                        }
+
+                        if (args.getFirst().type() == ObjectType.ARRAY) {
+                            var arr = (ArrayObject) args.getLast();
+                            if (arr.isEmpty()) {
+                                return NULL;
+                            }
+                            return arr.get(arr.size() - 1);
+                        } else {
+                            return new ErrorObject("argument to `first` not supported, got " + args.getLast().type());
+                        }
+                    },
+                    "push", args -> {
+                        if (args.size() != 2) {
+                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
+                        }
+
+                        if (args.getFirst().type() != ObjectType.ARRAY) {
+                            return new ErrorObject("argument to `push` must be ARRAY, got " + args.getLast().type());
+                        }
+
+                        var arr = (ArrayObject) args.getFirst();
+                        return arr.push(args.getLast());
+                    },
+                    "rest", args -> {
+                        if (args.size() != 1) {
+                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
+                        }
+
+                        if (args.getFirst().type() != ObjectType.ARRAY) {
+                            return new ErrorObject("argument to `rest` must be ARRAY, got " + args.getFirst().type());
+                        }
+
+                        var arr = (ArrayObject) args.getFirst();
+                        if (arr.isEmpty()) {
+                            return NULL;
+                        }
+                        return arr.slice(1, arr.size());
+                    }
+            );
+
+    private static final Map<String, Integer> INDICES = new ConcurrentHashMap<>();
+    private static volatile BuiltinFunctionObject[] objects = new BuiltinFunctionObject[0];
+    private static volatile List<String> names = List.of();
+
+    static {
+        for (String name : List.of("len", "puts", "first", "tail", "push", "rest")) {
+            register(name, FUNCTIONS.get(name));
+        }
+    }
+
+    private Builtins() {
+    }
+
+    /**
+     * Adds a builtin for every engine, so hosts can expose their own functions to scripts.
+     * Programs resolved afterwards bind the name directly; errors the function returns without a
+     * position get the position of the call.
+     */
+    public static synchronized BuiltinFunctionObject register(String name, Function<List<NullangObject>, NullangObject> function) {
+        if (INDICES.containsKey(name)) {
+            throw new IllegalArgumentException("Builtin '" + name + "' is already registered");
+        }
+        var object = new BuiltinFunctionObject(function);
+        var grown = Arrays.copyOf(objects, objects.length + 1);
+        grown[objects.length] = object;
+        var grownNames = new ArrayList<>(names);
+        grownNames.add(name);
+
+        objects = grown;
+        names = List.copyOf(grownNames);
+        INDICES.put(name, objects.length - 1);
+        return object;
+    }
+
+    /** Every builtin name in registration order, which fixes the indices the compiler emits for them. */
+    public static List<String> names() {
+        return names;
+    }
+
+    /** Returns the builtin with this name, or null if there is none. */
+    public static BuiltinFunctionObject lookup(String name) {
+        int index = indexOf(name);
+        return index >= 0 ? objects[index] : null;
+    }
+
+    public static int indexOf(String name) {
+        return INDICES.getOrDefault(name, -1);
+    }
+
+    public static BuiltinFunctionObject get(int index) {
+        return objects[index];
+    }
+}
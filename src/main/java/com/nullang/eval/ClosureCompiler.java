@@ -0,0 +1,427 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.eval.node.InfixSite;
+import com.nullang.nullangobject.ArrayObject;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.FunctionObject;
+import com.nullang.nullangobject.NullObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+import com.nullang.nullangobject.ReturnValue;
+import com.nullang.nullangobject.StringObject;
+import com.nullang.nullangobject.TailCall;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.nullang.eval.Eval.isError;
+
+/**
+ * Turns the AST into a tree of {@link Executable} lambdas once, so running a program no longer
+ * dispatches on node types. Results, including error propagation, match {@link Eval}.
+ * Function bodies are compiled when their literal is, and kept for calls made from later programs.
+ * Calls in tail position of a body come back as a {@link TailCall} and are made by the caller's
+ * loop, as in {@link Eval#applyFunction}, so tail recursion does not grow the Java stack.
+ */
+public class ClosureCompiler {
+    private final Map<BlockStatement, Executable> bodies = new IdentityHashMap<>();
+
+    public Executable compile(Program program) {
+        Resolver.resolve(program);
+        var statements = compileAll(program.statements);
+        return env -> {
+            NullangObject result = null;
+            for (Executable statement : statements) {
+                result = statement.execute(env);
+                if (result.type() == ObjectType.RETURN_VALUE || result.type() == ObjectType.ERROR) {
+                    return result;
+                }
+            }
+            return result;
+        };
+    }
+
+    private Executable compile(Node node) {
+        return switch (node) {
+            case ExpressionStatement exp ->
+                    compile(exp.expression());
+            case IntegerIdentifier intNode -> {
+                var value = intNode.getObject();
+                yield env -> value;
+            }
+            case StringIdentifier stringIdentifier -> {
+                var value = new StringObject(stringIdentifier.getValue());
+                yield env -> value;
+            }
+            case BooleanIdentifier booleanNode -> {
+                var value = booleanNode.getValue() ? BooleanObject.TRUE : BooleanObject.FALSE;
+                yield env -> value;
+            }
+            case IndexExpression indexExpression ->
+                    compileIndex(indexExpression);
+            case SliceExpression slice ->
+                    compileSlice(slice);
+            case IfExpression ifExpression ->
+                    compileIf(ifExpression);
+            case BlockStatement blockStatement ->
+                    compileBlock(blockStatement);
+            case ReturnStatement returnStatement -> {
+                var value = returnStatement.getReturnValue() == null
+                        ? (Executable) env -> NullObject.NULL
+                        : compile(returnStatement.getReturnValue());
+                yield env -> {
+                    var result = value.execute(env);
+                    return isError(result) ? result : new ReturnValue(result);
+                };
+            }
+            case LetStatement letStatement ->
+                    compileLet(letStatement);
+            case Identifier identifier ->
+                    compileIdentifier(identifier);
+            case InfixExpression infix ->
+                    compileInfix(infix);
+            case PrefixExpression pe -> {
+                var right = compile(pe.getRight());
+                yield env -> {
+                    var value = right.execute(env);
+                    return isError(value) ? value : Eval.evaluatePrefixExpression(pe, value);
+                };
+            }
+            case FnExpression fn -> {
+                var params = fn.parameters();
+                var body = fn.body();
+                compileBody(body);
+                yield env -> new FunctionObject(params, body, env);
+            }
+            case CallExpression call ->
+                    new CallSite(call, compile(call.function()), compileAll(call.arguments()), false);
+            case HashExpression hash -> {
+                var keys = compileAll(hash.keys());
+                var values = compileAll(hash.values());
+                yield env -> {
+                    var keyObjects = new ArrayList<NullangObject>(keys.length);
+                    var valueObjects = new ArrayList<NullangObject>(values.length);
+                    for (int i = 0; i < keys.length; i++) {
+                        var key = keys[i].execute(env);
+                        if (isError(key)) {
+                            return key;
+                        }
+                        var value = values[i].execute(env);
+                        if (isError(value)) {
+                            return value;
+                        }
+                        keyObjects.add(key);
+                        valueObjects.add(value);
+                    }
+                    return Eval.evalHashLiteral(hash, keyObjects, valueObjects);
+                };
+            }
+            case ArrayExpression array -> {
+                var elements = compileAll(array.elements());
+                yield env -> {
+                    var values = new ArrayList<NullangObject>(elements.length);
+                    for (Executable element : elements) {
+                        var value = element.execute(env);
+                        if (isError(value)) {
+                            return value;
+                        }
+                        values.add(value);
+                    }
+                    return new ArrayObject(values);
+                };
+            }
+            default ->
+                    env -> NullObject.NULL;
+        };
+    }
+
+    private Executable[] compileAll(List<? extends Node> nodes) {
+        var compiled = new Executable[nodes.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = compile(nodes.get(i));
+        }
+        return compiled;
+    }
+
+    private Executable compileIndex(IndexExpression node) {
+        var left = compile(node.getLeft());
+        var index = compile(node.getIndex());
+        return env -> {
+            var l = left.execute(env);
+            if (isError(l)) {
+                return l;
+            }
+            var i = index.execute(env);
+            if (isError(i)) {
+                return i;
+            }
+            return Eval.evalIndexExpression(node, l, i);
+        };
+    }
+
+    private Executable compileSlice(SliceExpression node) {
+        var left = compile(node.left());
+        var start = node.start() == null ? null : compile(node.start());
+        var end = node.end() == null ? null : compile(node.end());
+        return env -> {
+            var l = left.execute(env);
+            if (isError(l)) {
+                return l;
+            }
+            var s = start == null ? null : start.execute(env);
+            if (isError(s)) {
+                return s;
+            }
+            var e = end == null ? null : end.execute(env);
+            if (isError(e)) {
+                return e;
+            }
+            return Eval.evalSliceExpression(node, l, s, e);
+        };
+    }
+
+    private Executable compileIf(IfExpression node) {
+        var condition = compile(node.getCondition());
+        var consequence = compile(node.getConsequence());
+        var alternative = node.getAlternative().map(this::compile).orElse(env -> NullObject.NULL);
+        return env -> {
+            var value = condition.execute(env);
+            if (isError(value)) {
+                return value;
+            }
+            return Eval.isTruthy(value) ? consequence.execute(env) : alternative.execute(env);
+        };
+    }
+
+    /** Compiling a body compiles the functions nested in it, so the map is filled in two steps. */
+    private Executable compileBody(BlockStatement body) {
+        var code = bodies.get(body);
+        if (code == null) {
+            code = compileTailBlock(body);
+            bodies.put(body, code);
+        }
+        return code;
+    }
+
+    private Executable compileBlock(BlockStatement block) {
+        return sequence(compileAll(block.getStatements()));
+    }
+
+    /**
+     * A function body, or a branch of an if in tail position of one: the values of its returns and
+     * of its last statement are in tail position. A tail call comes back as a {@link TailCall},
+     * wrapped in a {@link ReturnValue} when it is returned so the rest of the block is skipped.
+     */
+    private Executable compileTailBlock(BlockStatement block) {
+        var statements = block.getStatements();
+        var compiled = new Executable[statements.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            boolean last = i == compiled.length - 1;
+            compiled[i] = switch (statements.get(i)) {
+                case ReturnStatement returnStatement -> {
+                    var value = compileTail(returnStatement.getReturnValue());
+                    yield env -> {
+                        var result = value.execute(env);
+                        return isError(result) ? result : new ReturnValue(result);
+                    };
+                }
+                case ExpressionStatement exp when last ->
+                        compileTail(exp.expression());
+                default -> compile(statements.get(i));
+            };
+        }
+        return sequence(compiled);
+    }
+
+    private Executable compileTail(Expression expression) {
+        return switch (expression) {
+            case null ->
+                    env -> NullObject.NULL;
+            case CallExpression call ->
+                    new CallSite(call, compile(call.function()), compileAll(call.arguments()), true);
+            case IfExpression ifExpression -> {
+                var condition = compile(ifExpression.getCondition());
+                var consequence = compileTailBlock(ifExpression.getConsequence());
+                var alternative = ifExpression.getAlternative().map(this::compileTailBlock).orElse(env -> NullObject.NULL);
+                yield env -> {
+                    var value = condition.execute(env);
+                    if (isError(value)) {
+                        return value;
+                    }
+                    return Eval.isTruthy(value) ? consequence.execute(env) : alternative.execute(env);
+                };
+            }
+            default -> compile(expression);
+        };
+    }
+
+    private static Executable sequence(Executable[] statements) {
+        return env -> {
+            NullangObject result = null;
+            for (Executable statement : statements) {
+                result = statement.execute(env);
+                if (result != null && (result.type() == ObjectType.RETURN_VALUE || result.type() == ObjectType.ERROR)) {
+                    return result;
+                }
+            }
+            return result;
+        };
+    }
+
+    private Executable compileLet(LetStatement node) {
+        var value = compile(node.getValue());
+        var name = node.getName();
+        if (name.getDepth() >= 0) {
+            int slot = name.getSlot();
+            return env -> {
+                var result = value.execute(env);
+                if (!isError(result)) {
+                    env.set(slot, result);
+                }
+                return result;
+            };
+        }
+        var key = name.getValue();
+        return env -> {
+            var result = value.execute(env);
+            if (!isError(result)) {
+                env.define(key, result);
+            }
+            return result;
+        };
+    }
+
+    private Executable compileIdentifier(Identifier identifier) {
+        int depth = identifier.getDepth();
+        int slot = identifier.getSlot();
+        if (depth >= 0) {
+            return env -> {
+                var value = env.get(depth, slot);
+                return value != null ? value : Eval.evalIdentifier(identifier, env);
+            };
+        }
+        if (depth == Identifier.BUILTIN) {
+            var builtin = Builtins.get(slot);
+            return env -> env.shadowsBuiltins() ? Eval.evalIdentifier(identifier, env) : builtin;
+        }
+        if (depth == Identifier.GLOBAL) {
+            var name = identifier.getValue();
+            return env -> {
+                var value = env.getGlobal(name);
+                return value != null ? value : Eval.evalIdentifier(identifier, env);
+            };
+        }
+        return env -> Eval.evalIdentifier(identifier, env);
+    }
+
+    private Executable compileInfix(InfixExpression infix) {
+        var left = compile(infix.getLeft());
+        var right = compile(infix.getRight());
+        var site = new InfixSite(infix);
+        return env -> {
+            var l = left.execute(env);
+            if (isError(l)) {
+                return l;
+            }
+            var r = right.execute(env);
+            if (isError(r)) {
+                return r;
+            }
+            return site.execute(l, r);
+        };
+    }
+
+    /**
+     * A call with a one-entry cache from the last callee's body to its compiled form. A call in tail
+     * position hands a function callee back as a {@link TailCall}; any other call makes it and then
+     * keeps making the tail calls its body hands back.
+     */
+    private final class CallSite implements Executable {
+        private final CallExpression call;
+        private final Executable function;
+        private final Executable[] arguments;
+        private final boolean tail;
+        private BlockStatement cachedBody;
+        private Executable cachedCode;
+
+        CallSite(CallExpression call, Executable function, Executable[] arguments, boolean tail) {
+            this.call = call;
+            this.function = function;
+            this.arguments = arguments;
+            this.tail = tail;
+        }
+
+        @Override
+        public NullangObject execute(Env env) {
+            var callee = function.execute(env);
+            if (isError(callee)) {
+                return callee;
+            }
+            var args = new NullangObject[arguments.length];
+            for (int i = 0; i < args.length; i++) {
+                var value = arguments[i].execute(env);
+                if (isError(value)) {
+                    return value;
+                }
+                args[i] = value;
+            }
+
+            if (tail && callee instanceof FunctionObject fn) {
+                return new TailCall(call, fn, Arrays.asList(args));
+            }
+            return apply(call, callee, Arrays.asList(args));
+        }
+
+        private NullangObject apply(CallExpression call, NullangObject callee, List<NullangObject> args) {
+            while (callee instanceof FunctionObject fn) {
+                var missing = Eval.checkArguments(call, fn, args);
+                if (missing != null) {
+                    return missing;
+                }
+                var frame = Eval.extendedFunctionEnv(fn, args);
+                var result = code(fn.body()).execute(frame);
+                if (result instanceof ReturnValue rv) {
+                    result = rv.value();
+                }
+                if (!(result instanceof TailCall tailCall)) {
+                    return result != null ? result : NullObject.NULL;
+                }
+                call = tailCall.call();
+                callee = tailCall.function();
+                args = tailCall.arguments();
+            }
+            return Eval.applyBuiltin(call, callee, args);
+        }
+
+        private Executable code(BlockStatement body) {
+            if (body != cachedBody) {
+                cachedCode = compileBody(body);
+                cachedBody = body;
+            }
+            return cachedCode;
+        }
+    }
+}
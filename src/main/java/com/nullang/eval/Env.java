@@ -5,39 +5,110 @@ import com.nullang.nullangobject.NullangObject;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * A scope. Top-level scopes keep names in a map; function frames built from resolved bodies
+ * keep their locals in slots numbered by the {@link Resolver}, which resolved identifiers index directly.
+ */
 public class Env {
-    private final Map<String, NullangObject> current = new HashMap<>();
+    private final Map<String, NullangObject> current;
+    private final String[] slotNames;
+    private final NullangObject[] slots;
     private Env outer = null;
+    private Env root = this;
+    private boolean shadowsBuiltins;
+
+    public Env() {
+        this.current = new HashMap<>();
+        this.slotNames = null;
+        this.slots = null;
+    }
 
-    public Env() {}
     public Env(Env outer) {
-        this.outer = outer;
+        this();
+        setOuter(outer);
+    }
+
+    public Env(Env outer, String[] slotNames) {
+        this.current = null;
+        this.slotNames = slotNames;
+        this.slots = new NullangObject[slotNames.length];
+        setOuter(outer);
     }
 
     public void define(String name, NullangObject value) {
-        current.put(name, value);
+        int slot = slotOf(name);
+        if (slot >= 0) {
+            slots[slot] = value;
+        } else {
+            current.put(name, value);
+            if (Builtins.indexOf(name) >= 0) {
+                root.shadowsBuiltins = true;
+            }
+        }
     }
 
     public NullangObject get(String name) {
-        if (!current.containsKey(name)) {
-            if (outer != null) {
-                return outer.get(name);
+        for (Env env = this; env != null; env = env.outer) {
+            NullangObject value = env.getLocal(name);
+            if (value != null) {
+                return value;
             }
         }
-        return current.get(name);
+        return null;
     }
 
     public boolean contains(String name) {
-        if (current.containsKey(name)) {
-            return true;
+        return get(name) != null;
+    }
+
+    /** Reads slot {@code slot} of the frame {@code depth} levels out. */
+    public NullangObject get(int depth, int slot) {
+        Env env = this;
+        for (int i = 0; i < depth; i++) {
+            env = env.outer;
         }
-        if (outer != null) {
-            return outer.contains(name);
+        return env.slots[slot];
+    }
+
+    public void set(int slot, NullangObject value) {
+        slots[slot] = value;
+    }
+
+    /** Looks a name up past every function frame, for identifiers the resolver found no local for. */
+    public NullangObject getGlobal(String name) {
+        Env env = this;
+        while (env.slots != null) {
+            env = env.outer;
         }
-        return false;
+        return env.get(name);
     }
 
     public void setOuter(Env outer) {
         this.outer = outer;
+        this.root = outer == null ? this : outer.root;
+    }
+
+    /** Whether any scope in this chain has bound a builtin's name, so builtins cannot be taken as is. */
+    public boolean shadowsBuiltins() {
+        return root.shadowsBuiltins;
+    }
+
+    private NullangObject getLocal(String name) {
+        if (slots == null) {
+            return current.get(name);
+        }
+        int slot = slotOf(name);
+        return slot >= 0 ? slots[slot] : null;
+    }
+
+    private int slotOf(String name) {
+        if (slotNames != null) {
+            for (int i = 0; i < slotNames.length; i++) {
+                if (slotNames[i].equals(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
     }
 }
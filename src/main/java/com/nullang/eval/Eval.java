@@ -6,102 +6,48 @@ import com.nullang.ast.expression.ArrayExpression;
 import com.nullang.ast.expression.CallExpression;
 import com.nullang.ast.expression.Expression;
 import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
 import com.nullang.ast.expression.IfExpression;
 import com.nullang.ast.expression.IndexExpression;
 import com.nullang.ast.expression.InfixExpression;
 import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
 import com.nullang.ast.statement.*;
+import com.nullang.eval.jit.Jit;
+import com.nullang.eval.node.InfixSite;
 import com.nullang.nullangobject.*;
+import com.nullang.parser.Parser;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
+import java.util.Optional;
 
 public class Eval {
-    private final static NullangObject NULL = new NullObject();
-    private final static NullangObject TRUE = new BooleanObject(true);
-    private final static NullangObject FALSE = new BooleanObject(false);
-    private static final Map<String, Function<List<NullangObject>, NullangObject>> builtInFunctions =
-            Map.of(
-                    "len", args -> {
-                        if (args.size() != 1) {
-                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
-                        }
-
-                        return switch (args.getFirst().type()) {
-                            case STRING ->
-                                    new IntegerObject(args.getFirst().inspect().length());
-                            case ARRAY -> {
-                                var arr = (ArrayObject) args.getFirst();
-                                yield new IntegerObject(arr.elements().size());
-                            }
-                            default ->
-                                    new ErrorObject("argument to `len` not supported, got " + args.get(0).type());
-                        };
-                    },
-                    "puts", args -> {
-                        for (NullangObject arg : args) {
-                            System.out.println(arg.inspect());
-                        }
-
-                        return NULL;
-                    },
-                    "first", args -> {
-                        if (args.size() != 1) {
-                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
-                        }
-
-                        if (args.getFirst().type() == ObjectType.ARRAY) {
-                            var arr = (ArrayObject) args.getFirst();
-                            if (arr.elements().isEmpty()) {
-                                return NULL;
-                            }
-                            return arr.elements().getFirst();
-                        } else {
-                            return new ErrorObject("argument to `first` not supported, got " + args.getFirst().type());
-                        }
-                    },
-                    "tail", args -> {
-                        if (args.size() != 1) {
-                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
-                        }
-
-                        if (args.getFirst().type() == ObjectType.ARRAY) {
-                            var arr = (ArrayObject) args.getLast();
-                            if (arr.elements().isEmpty()) {
-                                return NULL;
-                            }
-                            return arr.elements().getLast();
-                        } else {
-                            return new ErrorObject("argument to `first` not supported, got " + args.getLast().type());
-                        }
-                    },
-                    "push", args -> {
-                        if (args.size() != 2) {
-                            return new ErrorObject("wrong number of arguments. got " + args.size() + " expected 1");
-                        }
-
-                        if (args.getFirst().type() != ObjectType.ARRAY) {
-                            return new ErrorObject("argument to `push` must be ARRAY, got " + args.getLast().type());
-                        }
-
-                        var arr = (ArrayObject) args.getFirst();
-                        arr.elements().add(args.getLast());
-
-                        return arr;
-                    }
-            );
+    private final static NullangObject NULL = NullObject.NULL;
+    private final static NullangObject TRUE = BooleanObject.TRUE;
+    private final static NullangObject FALSE = BooleanObject.FALSE;
+    static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private final Jit jit;
+
+    public Eval() {
+        this(Jit.fromSystemProperty());
+    }
+
+    public Eval(Jit jit) {
+        this.jit = jit;
+    }
 
     public NullangObject evaluate(Node node, Env evalEnv) {
         return switch (node) {
-            case Program program ->
-                    evalProgram(program.statements, evalEnv);
+            case Program program -> {
+                Resolver.resolve(program);
+                yield evalProgram(program.statements, evalEnv);
+            }
             case ExpressionStatement exp ->
                     evaluate(exp.expression(), evalEnv);
             case IntegerIdentifier intNode ->
-                    new IntegerObject(intNode.getValue());
+                    intNode.getObject();
             case StringIdentifier stringIdentifier ->
                     new StringObject(stringIdentifier.getValue());
             case IndexExpression indexExpression -> {
@@ -114,7 +60,23 @@ public class Eval {
                     yield index;
                 }
 
-                yield evalIndexExpression(left, index);
+                yield evalIndexExpression(indexExpression, left, index);
+            }
+            case SliceExpression slice -> {
+                var left = evaluate(slice.left(), evalEnv);
+                if (isError(left)) {
+                    yield left;
+                }
+                var start = slice.start() == null ? null : evaluate(slice.start(), evalEnv);
+                if (isError(start)) {
+                    yield start;
+                }
+                var end = slice.end() == null ? null : evaluate(slice.end(), evalEnv);
+                if (isError(end)) {
+                    yield end;
+                }
+
+                yield evalSliceExpression(slice, left, start, end);
             }
             case BooleanIdentifier booleanNode ->
                     nativeBoolToBooleanObject(booleanNode.getValue());
@@ -123,7 +85,9 @@ public class Eval {
             case BlockStatement blockStatement ->
                     evalBlockStatement(blockStatement, evalEnv);
             case ReturnStatement returnStatement -> {
-                var value = evaluate(returnStatement.getReturnValue(), evalEnv);
+                var value = returnStatement.getReturnValue() == null
+                        ? NULL
+                        : evaluate(returnStatement.getReturnValue(), evalEnv);
                 if (isError(value)) {
                     yield value;
                 }
@@ -134,12 +98,25 @@ public class Eval {
                 if (isError(value)) {
                     yield value;
                 }
-                evalEnv.define(letStatement.getName().getValue(), value);
+                var name = letStatement.getName();
+                if (name.getDepth() >= 0) {
+                    evalEnv.set(name.getSlot(), value);
+                } else {
+                    evalEnv.define(name.getValue(), value);
+                }
                 yield value;
             }
             case Identifier identifier ->
                     evalIdentifier(identifier, evalEnv);
             case InfixExpression infix -> {
+                var site = InfixSite.of(infix);
+                if (site.isUnboxedArithmetic()) {
+                    long value = evalUnboxed(infix, evalEnv);
+                    if (value != NOT_AN_INT) {
+                        yield IntegerObject.valueOf((int) value);
+                    }
+                    site.disableUnboxedArithmetic();
+                }
                 var left = evaluate(infix.getLeft(), evalEnv);
                 if (isError(left)) {
                     yield left;
@@ -148,14 +125,14 @@ public class Eval {
                 if (isError(right)) {
                     yield right;
                 }
-                yield evaluateInfixExpression(infix.getOperator(), left, right);
+                yield site.execute(left, right);
             }
             case PrefixExpression pe -> {
                 var right = evaluate(pe.getRight(), evalEnv);
                 if (isError(right)) {
                     yield right;
                 }
-                yield evaluatePrefixExpression(pe.getOperator(), right);
+                yield evaluatePrefixExpression(pe, right);
             }
             case FnExpression fn -> {
                 var params = fn.parameters();
@@ -171,7 +148,24 @@ public class Eval {
                 if (args.size() == 1 && isError(args.getFirst())) {
                     yield args.getFirst();
                 }
-                yield applyFunction(function, args);
+                yield applyFunction(callExpression, function, args);
+            }
+            case HashExpression hash -> {
+                var keys = new ArrayList<NullangObject>(hash.keys().size());
+                var values = new ArrayList<NullangObject>(hash.values().size());
+                for (int i = 0; i < hash.keys().size(); i++) {
+                    var key = evaluate(hash.keys().get(i), evalEnv);
+                    if (isError(key)) {
+                        yield key;
+                    }
+                    var value = evaluate(hash.values().get(i), evalEnv);
+                    if (isError(value)) {
+                        yield value;
+                    }
+                    keys.add(key);
+                    values.add(value);
+                }
+                yield evalHashLiteral(hash, keys, values);
             }
             case ArrayExpression arrayExpression -> {
                 var elements = evalExpressions(arrayExpression.elements(), evalEnv);
@@ -185,58 +179,181 @@ public class Eval {
         };
     }
 
-    private NullangObject evalIndexExpression(NullangObject left, NullangObject index) {
+    /**
+     * Computes an arithmetic tree with primitive ints. Returns {@link #NOT_AN_INT} when an operand
+     * is not an integer or a division is by zero; the caller then takes the boxed path, which
+     * gives the same error. Operands are only literals and identifiers, so evaluating them twice
+     * has no visible effect.
+     */
+    static long evalUnboxed(Expression expression, Env env) {
+        switch (expression) {
+            case IntegerIdentifier literal -> {
+                return literal.getValue();
+            }
+            case Identifier identifier -> {
+                return evalIdentifier(identifier, env) instanceof IntegerObject integer ? integer.value() : NOT_AN_INT;
+            }
+            case InfixExpression infix -> {
+                long left = evalUnboxed(infix.getLeft(), env);
+                if (left == NOT_AN_INT) {
+                    return NOT_AN_INT;
+                }
+                long right = evalUnboxed(infix.getRight(), env);
+                if (right == NOT_AN_INT) {
+                    return NOT_AN_INT;
+                }
+                int l = (int) left;
+                int r = (int) right;
+                return switch (infix.getOperatorKind()) {
+                    case PLUS -> l + r;
+                    case MINUS -> l - r;
+                    case ASTERISK -> l * r;
+                    case SLASH -> r == 0 ? NOT_AN_INT : l / r;
+                    default -> NOT_AN_INT;
+                };
+            }
+            default -> {
+                return NOT_AN_INT;
+            }
+        }
+    }
+
+    static NullangObject evalHashLiteral(HashExpression node, List<NullangObject> keys, List<NullangObject> values) {
+        for (NullangObject key : keys) {
+            if (!HashObject.isHashable(key)) {
+                return new ErrorObject("unusable as hash key: " + key.type(), node.token());
+            }
+        }
+        return new HashObject(keys, values);
+    }
+
+    static NullangObject evalIndexExpression(IndexExpression node, NullangObject left, NullangObject index) {
         if(left.type()==ObjectType.ARRAY && index.type() == ObjectType.INTEGER) {
             return evalArrayIndexExpression(left, index);
+        } else if (left instanceof HashObject hash) {
+            if (!HashObject.isHashable(index)) {
+                return new ErrorObject("unusable as hash key: " + index.type(), node.getToken());
+            }
+            var value = hash.get(index);
+            return value != null ? value : NULL;
         } else {
-            return new ErrorObject("index operator not supported: " + left.type() + " " + index.type());
+            return new ErrorObject("index operator not supported: " + left.type() + " " + index.type(), node.getToken());
+        }
+    }
+
+    /** {@code start} and {@code end} are null for a bound the slice leaves out. */
+    static NullangObject evalSliceExpression(SliceExpression node, NullangObject left, NullangObject start, NullangObject end) {
+        if (!(left instanceof ArrayObject array)) {
+            return new ErrorObject("slice operator not supported: " + left.type(), node.token());
         }
+        if (start != null && start.type() != ObjectType.INTEGER) {
+            return new ErrorObject("slice bound must be INTEGER, got " + start.type(), node.token());
+        }
+        if (end != null && end.type() != ObjectType.INTEGER) {
+            return new ErrorObject("slice bound must be INTEGER, got " + end.type(), node.token());
+        }
+
+        int from = start == null ? 0 : ((IntegerObject) start).value();
+        int to = end == null ? array.size() : ((IntegerObject) end).value();
+        return array.slice(from, to);
     }
 
-    private NullangObject evalArrayIndexExpression(NullangObject array, NullangObject index) {
+    private static NullangObject evalArrayIndexExpression(NullangObject array, NullangObject index) {
         var arr = (ArrayObject) array;
         var idx = (IntegerObject) index;
 
-        if (idx.value() < 0 || idx.value() > arr.elements().size()) {
+        if (idx.value() < 0 || idx.value() >= arr.size()) {
             return NULL;
         }
 
-        return arr.elements().get(idx.value());
+        return arr.get(idx.value());
     }
 
-    private NullangObject applyFunction(NullangObject function, List<NullangObject> args) {
-        if (function instanceof FunctionObject fn) {
+    /**
+     * Calls {@code function}. Calls in tail position of the body come back as a {@link TailCall}
+     * and are made by this loop, so tail recursion does not grow the Java stack.
+     */
+    public NullangObject applyFunction(CallExpression call, NullangObject function, List<NullangObject> args) {
+        while (function instanceof FunctionObject fn) {
+            var missing = checkArguments(call, fn, args);
+            if (missing != null) {
+                return missing;
+            }
             var extendedEnv = extendedFunctionEnv(fn, args);
-            var evaluated = evaluate(fn.body(), extendedEnv);
-            if (evaluated instanceof ReturnValue rv) {
-                return rv.value();
+            var compiled = jit.compiledBody(fn.body());
+            var result = compiled != null
+                    ? compiled.invoke(this, extendedEnv)
+                    : evalFunctionBody(fn.body(), extendedEnv);
+            if (!(result instanceof TailCall tailCall)) {
+                return result != null ? result : NULL;
             }
-            return evaluated;
-        } else if (function instanceof BuiltinFunctionObject fn) {
-            return fn.call(args);
+            call = tailCall.call();
+            function = tailCall.function();
+            args = tailCall.arguments();
+        }
+        return applyBuiltin(call, function, args);
+    }
+
+    /** Calls anything that is not a {@link FunctionObject}: a builtin, or an error for other values. */
+    static NullangObject applyBuiltin(CallExpression call, NullangObject function, List<NullangObject> args) {
+        if (function instanceof BuiltinFunctionObject fn) {
+            var result = fn.call(args);
+            if (result instanceof ErrorObject error && !error.hasPosition()) {
+                return new ErrorObject(error.message(), call.token());
+            }
+            return result;
         } else {
-            return new ErrorObject("not a function: " + function.type());
+            return new ErrorObject("not a function: " + function.type(), call.token());
+        }
+    }
+
+    /** The error for a call with fewer arguments than {@code fn} has parameters, or null if there are enough. */
+    static ErrorObject checkArguments(CallExpression call, FunctionObject fn, List<NullangObject> args) {
+        int want = fn.parameters().size();
+        if (args.size() >= want) {
+            return null;
         }
+        return new ErrorObject("wrong number of arguments: want=" + want + ", got=" + args.size(), call.token());
     }
 
-    private Env extendedFunctionEnv(FunctionObject fn, List<NullangObject> args) {
-        var fnEnv = new Env(fn.env());
+    static Env extendedFunctionEnv(FunctionObject fn, List<NullangObject> args) {
+        var slotNames = fn.body().getSlotNames();
+        if (slotNames == null) {
+            var fnEnv = new Env(fn.env());
+            for (int i = 0; i < fn.parameters().size(); i++) {
+                fnEnv.define(fn.parameters().get(i).getValue(), args.get(i));
+            }
+            return fnEnv;
+        }
+
+        var frame = new Env(fn.env(), slotNames);
         for (int i = 0; i < fn.parameters().size(); i++) {
-            fnEnv.define(fn.parameters().get(i).getValue(), args.get(i));
+            frame.set(fn.parameters().get(i).getSlot(), args.get(i));
         }
-        return fnEnv;
+        return frame;
     }
 
-    private NullangObject evalIdentifier(Identifier identifier, Env env) {
-        if (env.contains(identifier.getValue())) {
-            return env.get(identifier.getValue());
+    static NullangObject evalIdentifier(Identifier identifier, Env env) {
+        var value = switch (identifier.getDepth()) {
+            case Identifier.UNRESOLVED -> env.get(identifier.getValue());
+            case Identifier.GLOBAL -> env.getGlobal(identifier.getValue());
+            case Identifier.BUILTIN -> env.shadowsBuiltins() ? env.getGlobal(identifier.getValue()) : Builtins.get(identifier.getSlot());
+            default -> env.get(identifier.getDepth(), identifier.getSlot());
+        };
+        if (value == null && identifier.getDepth() >= 0) {
+            // a local whose let has not run yet, so the name still refers to an outer binding
+            value = env.get(identifier.getValue());
+        }
+        if (value != null) {
+            return value;
         }
 
-        if (builtInFunctions.containsKey(identifier.getValue())) {
-            return new BuiltinFunctionObject(builtInFunctions.get(identifier.getValue()));
+        var builtin = Builtins.lookup(identifier.getValue());
+        if (builtin != null) {
+            return builtin;
         }
 
-        return new ErrorObject("identifier not found: " + identifier.getValue());
+        return new ErrorObject("identifier not found: " + identifier.getValue(), identifier.getToken());
     }
 
     private List<NullangObject> evalExpressions(List<Expression> expressions, Env env) {
@@ -266,7 +383,7 @@ public class Eval {
         }
     }
 
-    private boolean isTruthy(NullangObject condition) {
+    static boolean isTruthy(NullangObject condition) {
         if (condition == NULL) {
             return false;
         } else if (condition == TRUE) {
@@ -278,66 +395,19 @@ public class Eval {
         }
     }
 
-    private NullangObject evaluatePrefixExpression(String operator, NullangObject right) {
+    static NullangObject evaluatePrefixExpression(PrefixExpression node, NullangObject right) {
+        var operator = node.getOperatorKind();
         return switch (operator) {
-            case "!" ->
+            case BANG ->
                     evaluateBangOperatorExpression(right);
-            case "-" ->
-                    evaluateMinusPrefixOperatorExpression(right);
-            default ->
-                    new ErrorObject("unknown operator: " + operator + " " + right.type());
-        };
-    }
-
-    private NullangObject evaluateInfixExpression(String operator, NullangObject left, NullangObject right) {
-        if (left.type() == ObjectType.INTEGER && right.type() == ObjectType.INTEGER) {
-            return evaluateIntegerInfixExpression(operator, left, right);
-        } else if (Objects.equals(operator, "==")) {
-            return nativeBoolToBooleanObject(left == right);
-        } else if (Objects.equals(operator, "!=")) {
-            return nativeBoolToBooleanObject(left != right);
-        } else if (left.type() == ObjectType.STRING && right.type() == ObjectType.STRING) {
-            if (operator.equals("+")) {
-                return new StringObject(left.inspect() + right.inspect());
-            }
-
-            return new ErrorObject("unknown operator: " + left.type() + " " + operator + " " + right.type());
-        } else if (left.type() != right.type()) {
-            return new ErrorObject("type mismatch: " + left.type() + " " + operator + " " + right.type());
-        }
-
-
-        return new ErrorObject("unknown operator: " + left.type() + " " + operator + " " + right.type());
-    }
-
-    private NullangObject evaluateIntegerInfixExpression(String operator, NullangObject left, NullangObject right) {
-        var leftValue = ((IntegerObject) left).value();
-        var rightValue = ((IntegerObject) right).value();
-
-        return switch (operator) {
-            case "+" ->
-                    new IntegerObject(leftValue + rightValue);
-            case "-" ->
-                    new IntegerObject(leftValue - rightValue);
-            case "*" ->
-                    new IntegerObject(leftValue * rightValue);
-            case "/" ->
-                    new IntegerObject(leftValue / rightValue);
-
-            case "<" ->
-                    nativeBoolToBooleanObject(leftValue < rightValue);
-            case ">" ->
-                    nativeBoolToBooleanObject(leftValue > rightValue);
-            case "==" ->
-                    nativeBoolToBooleanObject(leftValue == rightValue);
-            case "!=" ->
-                    nativeBoolToBooleanObject(leftValue != rightValue);
+            case MINUS ->
+                    evaluateMinusPrefixOperatorExpression(node, right);
             default ->
-                    new ErrorObject("unknown operator: " + left.type() + " " + operator + " " + right.type());
+                    new ErrorObject("unknown operator: " + operator.symbol() + " " + right.type(), node.getToken());
         };
     }
 
-    private NullangObject evaluateBangOperatorExpression(NullangObject right) {
+    private static NullangObject evaluateBangOperatorExpression(NullangObject right) {
         return switch (right) {
             case BooleanObject b when b.value() ->
                     FALSE;
@@ -350,17 +420,17 @@ public class Eval {
         };
     }
 
-    private NullangObject evaluateMinusPrefixOperatorExpression(NullangObject right) {
+    private static NullangObject evaluateMinusPrefixOperatorExpression(PrefixExpression node, NullangObject right) {
         if (right.type() != ObjectType.INTEGER) {
-            return new ErrorObject("unknown operator: -" + right.type());
+            return new ErrorObject("unknown operator: -" + right.type(), node.getToken());
         }
 
         var negativeValue = -((IntegerObject) right).value();
 
-        return new IntegerObject(negativeValue);
+        return IntegerObject.valueOf(negativeValue);
     }
 
-    private NullangObject nativeBoolToBooleanObject(boolean input) {
+    private static NullangObject nativeBoolToBooleanObject(boolean input) {
         if (input) {
             return TRUE;
         } else {
@@ -368,6 +438,25 @@ public class Eval {
         }
     }
 
+    /**
+     * Parses and evaluates one top-level statement at a time, so peak memory is bounded by the
+     * largest statement rather than the whole script.
+     */
+    public NullangObject evaluateStreaming(Parser parser, Env env) {
+        NullangObject result = null;
+
+        Optional<Statement> statement;
+        while ((statement = parser.parseNextStatement()).isPresent()) {
+            Resolver.resolve(statement.get());
+            result = evaluate(statement.get(), env);
+            if (result.type() == ObjectType.RETURN_VALUE || result.type() == ObjectType.ERROR) {
+                return result;
+            }
+        }
+
+        return result;
+    }
+
     private NullangObject evalProgram(List<? extends Node> nodes, Env env) {
         NullangObject result = null;
 
@@ -382,6 +471,71 @@ public class Eval {
     }
 
 
+    /**
+     * Evaluates a function body, leaving a call in tail position unmade. The result is the
+     * function's value, already unwrapped from any {@link ReturnValue}, or a {@link TailCall}.
+     */
+    private NullangObject evalFunctionBody(BlockStatement block, Env env) {
+        var statements = block.getStatements();
+        NullangObject result = null;
+
+        for (int i = 0; i < statements.size(); i++) {
+            var statement = statements.get(i);
+            if (statement instanceof ReturnStatement returnStatement) {
+                return evalTail(returnStatement.getReturnValue(), env);
+            }
+            if (i == statements.size() - 1 && statement instanceof ExpressionStatement exp) {
+                return evalTail(exp.expression(), env);
+            }
+            result = evaluate(statement, env);
+            if (result instanceof ReturnValue rv) {
+                return rv.value();
+            } else if (isError(result)) {
+                return result;
+            }
+        }
+
+        return result;
+    }
+
+    private NullangObject evalTail(Expression expression, Env env) {
+        switch (expression) {
+            case null -> {
+                return NULL;
+            }
+            case CallExpression callExpression -> {
+                var function = evaluate(callExpression.function(), env);
+                if (isError(function)) {
+                    return function;
+                }
+                var args = evalExpressions(callExpression.arguments(), env);
+                if (args.size() == 1 && isError(args.getFirst())) {
+                    return args.getFirst();
+                }
+                if (function instanceof FunctionObject fn) {
+                    return new TailCall(callExpression, fn, args);
+                }
+                return applyBuiltin(callExpression, function, args);
+            }
+            case IfExpression ifExpression -> {
+                var condition = evaluate(ifExpression.getCondition(), env);
+                if (isError(condition)) {
+                    return condition;
+                }
+                if (isTruthy(condition)) {
+                    return evalFunctionBody(ifExpression.getConsequence(), env);
+                } else if (ifExpression.getAlternative().isPresent()) {
+                    return evalFunctionBody(ifExpression.getAlternative().get(), env);
+                } else {
+                    return NULL;
+                }
+            }
+            default -> {
+                return evaluate(expression, env);
+            }
+        }
+    }
+
     private NullangObject evalBlockStatement(BlockStatement block, Env env) {
         NullangObject result = null;
 
@@ -397,7 +551,7 @@ public class Eval {
         return result;
     }
 
-    private boolean isError(NullangObject obj) {
+    static boolean isError(NullangObject obj) {
         if (obj != null) {
             return obj.type() == ObjectType.ERROR;
         }
@@ -0,0 +1,9 @@
+package com.nullang.eval;
+
+import com.nullang.nullangobject.NullangObject;
+
+/** A node turned into code once by the {@link ClosureCompiler}, run against a scope. */
+@FunctionalInterface
+public interface Executable {
+    NullangObject execute(Env env);
+}
@@ -0,0 +1,98 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.Nodes;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.Statement;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives every identifier inside a function a (depth, slot) address. Only function calls open
+ * a scope, so a function's locals are its parameters plus every {@code let} in its body outside
+ * nested functions, wherever it appears, since a closure may run after a later {@code let} has.
+ * Names that are not local to any enclosing function are marked {@link Identifier#GLOBAL} and
+ * keep their map lookup, or {@link Identifier#BUILTIN} with the builtin's index if they name one.
+ */
+public final class Resolver {
+    private final List<Map<String, Integer>> scopes = new ArrayList<>();
+
+    private Resolver() {
+    }
+
+    public static void resolve(Program program) {
+        if (!program.isResolved()) {
+            new Resolver().visit(program);
+            program.setResolved(true);
+        }
+    }
+
+    public static void resolve(Statement statement) {
+        new Resolver().visit(statement);
+    }
+
+    private void visit(Node node) {
+        switch (node) {
+            case null -> {
+            }
+            case Identifier identifier -> resolveIdentifier(identifier);
+            case FnExpression fn -> resolveFunction(fn);
+            default -> Nodes.forEachChild(node, this::visit);
+        }
+    }
+
+    private void resolveIdentifier(Identifier identifier) {
+        for (int depth = 0; depth < scopes.size(); depth++) {
+            Integer slot = scopes.get(scopes.size() - 1 - depth).get(identifier.getValue());
+            if (slot != null) {
+                identifier.resolve(depth, slot);
+                return;
+            }
+        }
+        int builtin = Builtins.indexOf(identifier.getValue());
+        if (builtin >= 0) {
+            identifier.resolve(Identifier.BUILTIN, builtin);
+        } else {
+            identifier.resolve(Identifier.GLOBAL, -1);
+        }
+    }
+
+    private void resolveFunction(FnExpression fn) {
+        Map<String, Integer> scope = new LinkedHashMap<>();
+        for (Identifier parameter : fn.parameters()) {
+            declare(scope, parameter.getValue());
+        }
+        declareLocals(fn.body(), scope);
+
+        scopes.add(scope);
+        fn.parameters().forEach(this::visit);
+        visit(fn.body());
+        scopes.removeLast();
+
+        fn.body().setSlotNames(scope.keySet().toArray(String[]::new));
+    }
+
+    private static void declareLocals(Node node, Map<String, Integer> scope) {
+        switch (node) {
+            case null -> {
+            }
+            case LetStatement let -> {
+                declare(scope, let.getName().getValue());
+                declareLocals(let.getValue(), scope);
+            }
+            case FnExpression fn -> {
+            }
+            default -> Nodes.forEachChild(node, child -> declareLocals(child, scope));
+        }
+    }
+
+    private static void declare(Map<String, Integer> scope, String name) {
+        scope.putIfAbsent(name, scope.size());
+    }
+}
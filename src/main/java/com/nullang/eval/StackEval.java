@@ -0,0 +1,430 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.ArrayExpression;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.IndexExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.eval.node.InfixSite;
+import com.nullang.nullangobject.ArrayObject;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.FunctionObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ReturnValue;
+import com.nullang.nullangobject.StringObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A tree-walking evaluator that keeps its continuations on the heap instead of the Java stack,
+ * so recursion depth is limited by {@code maxFrames} rather than the thread's stack size.
+ *
+ * <p>Each frame is a node, the number of its children already evaluated, its env and the height
+ * of the value stack when it was entered; children leave their values on the value stack. Since
+ * all state lives in this object, {@link #run} can stop after any number of steps and a later
+ * call, on any thread, picks up where it stopped. Results and errors match {@link Eval}.
+ */
+public final class StackEval {
+    public static final String MAX_FRAMES_PROPERTY = "nullang.stack.maxFrames";
+    public static final int DEFAULT_MAX_FRAMES = 1 << 22;
+
+    private static final int INITIAL_CAPACITY = 64;
+    /** The state of a call frame whose function body is running. */
+    private static final int IN_BODY = -1;
+
+    private final int maxFrames;
+
+    private Node[] nodes = new Node[INITIAL_CAPACITY];
+    private int[] states = new int[INITIAL_CAPACITY];
+    private Env[] envs = new Env[INITIAL_CAPACITY];
+    private int[] bases = new int[INITIAL_CAPACITY];
+    private int fp;
+
+    private NullangObject[] values = new NullangObject[INITIAL_CAPACITY];
+    private int sp;
+
+    private boolean done = true;
+    private NullangObject result;
+
+    public StackEval() {
+        this(Integer.getInteger(MAX_FRAMES_PROPERTY, DEFAULT_MAX_FRAMES));
+    }
+
+    public StackEval(int maxFrames) {
+        if (maxFrames < 1) {
+            throw new IllegalArgumentException("maxFrames must be positive, was " + maxFrames);
+        }
+        this.maxFrames = maxFrames;
+    }
+
+    public NullangObject evaluate(Node node, Env env) {
+        start(node, env);
+        run(Long.MAX_VALUE);
+        return result();
+    }
+
+    /** Sets up {@code node} to be evaluated by {@link #run}. */
+    public void start(Node node, Env env) {
+        if (!done) {
+            throw new IllegalStateException("an evaluation is already in progress");
+        }
+        done = false;
+        result = null;
+        pushFrame(node, env);
+    }
+
+    /** Takes at most {@code steps} steps; returns whether the evaluation has finished. */
+    public boolean run(long steps) {
+        while (!done && steps-- > 0) {
+            step();
+        }
+        return done;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public NullangObject result() {
+        if (!done) {
+            throw new IllegalStateException("the evaluation has not finished");
+        }
+        return result;
+    }
+
+    /** The number of frames in use, i.e. the current depth of the evaluation. */
+    public int depth() {
+        return fp;
+    }
+
+    private void step() {
+        int top = fp - 1;
+        var node = nodes[top];
+        int state = states[top];
+        var env = envs[top];
+
+        switch (node) {
+            case Program program -> {
+                if (state == 0) {
+                    Resolver.resolve(program);
+                }
+                sequence(program.statements, top, state, env);
+            }
+            case BlockStatement block ->
+                    sequence(block.getStatements(), top, state, env);
+            case ExpressionStatement exp ->
+                    replace(top, exp.expression(), env);
+            case ReturnStatement returnStatement -> {
+                if (state == 0 && returnStatement.getReturnValue() == null) {
+                    unwindReturn(NullObject.NULL);
+                } else if (state == 0) {
+                    states[top] = 1;
+                    descend(returnStatement.getReturnValue(), env);
+                } else {
+                    unwindReturn(pop());
+                }
+            }
+            case LetStatement let -> {
+                if (state == 0) {
+                    states[top] = 1;
+                    descend(let.getValue(), env);
+                    return;
+                }
+                var value = pop();
+                var name = let.getName();
+                if (name.getDepth() >= 0) {
+                    env.set(name.getSlot(), value);
+                } else {
+                    env.define(name.getValue(), value);
+                }
+                complete(value);
+            }
+            case IfExpression ifExpression -> {
+                if (state == 0) {
+                    states[top] = 1;
+                    descend(ifExpression.getCondition(), env);
+                } else if (Eval.isTruthy(pop())) {
+                    replace(top, ifExpression.getConsequence(), env);
+                } else if (ifExpression.getAlternative().isPresent()) {
+                    replace(top, ifExpression.getAlternative().get(), env);
+                } else {
+                    complete(NullObject.NULL);
+                }
+            }
+            case InfixExpression infix -> {
+                var site = InfixSite.of(infix);
+                if (state == 0 && site.isUnboxedArithmetic()) {
+                    long value = Eval.evalUnboxed(infix, env);
+                    if (value != Eval.NOT_AN_INT) {
+                        complete(IntegerObject.valueOf((int) value));
+                        return;
+                    }
+                    site.disableUnboxedArithmetic();
+                }
+                if (state < 2) {
+                    states[top] = state + 1;
+                    descend(state == 0 ? infix.getLeft() : infix.getRight(), env);
+                } else {
+                    complete(site.execute(values[sp - 2], values[sp - 1]));
+                }
+            }
+            case PrefixExpression prefix -> {
+                if (state == 0) {
+                    states[top] = 1;
+                    descend(prefix.getRight(), env);
+                } else {
+                    complete(Eval.evaluatePrefixExpression(prefix, pop()));
+                }
+            }
+            case IndexExpression index -> {
+                if (state < 2) {
+                    states[top] = state + 1;
+                    descend(state == 0 ? index.getLeft() : index.getIndex(), env);
+                } else {
+                    complete(Eval.evalIndexExpression(index, values[sp - 2], values[sp - 1]));
+                }
+            }
+            case SliceExpression slice -> {
+                switch (state) {
+                    case 0 -> {
+                        states[top] = 1;
+                        descend(slice.left(), env);
+                    }
+                    case 1 -> {
+                        states[top] = 2;
+                        descendOrNull(slice.start(), env);
+                    }
+                    case 2 -> {
+                        states[top] = 3;
+                        descendOrNull(slice.end(), env);
+                    }
+                    default ->
+                            complete(Eval.evalSliceExpression(slice, values[sp - 3], values[sp - 2], values[sp - 1]));
+                }
+            }
+            case HashExpression hash -> {
+                int count = hash.keys().size();
+                if (state < 2 * count) {
+                    states[top] = state + 1;
+                    descend((state & 1) == 0 ? hash.keys().get(state / 2) : hash.values().get(state / 2), env);
+                    return;
+                }
+                int base = bases[top];
+                var keys = new ArrayList<NullangObject>(count);
+                var hashValues = new ArrayList<NullangObject>(count);
+                for (int i = 0; i < count; i++) {
+                    keys.add(values[base + 2 * i]);
+                    hashValues.add(values[base + 2 * i + 1]);
+                }
+                complete(Eval.evalHashLiteral(hash, keys, hashValues));
+            }
+            case ArrayExpression array -> {
+                var elements = array.elements();
+                if (state < elements.size()) {
+                    states[top] = state + 1;
+                    descend(elements.get(state), env);
+                } else {
+                    complete(new ArrayObject(operands(bases[top])));
+                }
+            }
+            case CallExpression call ->
+                    call(call, top, state, env);
+            default -> {
+                var value = leaf(node, env);
+                complete(value != null ? value : NullObject.NULL);
+            }
+        }
+    }
+
+    /** Evaluates statements in order; the frame's value is the last statement's, or null if none. */
+    private void sequence(List<? extends Node> statements, int top, int state, Env env) {
+        if (state == statements.size()) {
+            complete(state == 0 ? null : values[sp - 1]);
+            return;
+        }
+        if (state > 0) {
+            pop();
+        }
+        states[top] = state + 1;
+        descend(statements.get(state), env);
+    }
+
+    /** The callee, then the arguments, then the body in a new frame above this one. */
+    private void call(CallExpression call, int top, int state, Env env) {
+        if (state == IN_BODY) {
+            var value = pop();
+            complete(value != null ? value : NullObject.NULL);
+            return;
+        }
+        var arguments = call.arguments();
+        if (state <= arguments.size()) {
+            states[top] = state + 1;
+            descend(state == 0 ? call.function() : arguments.get(state - 1), env);
+            return;
+        }
+
+        int base = bases[top];
+        var function = values[base];
+        var args = operands(base + 1);
+        if (function instanceof FunctionObject fn) {
+            var missing = Eval.checkArguments(call, fn, args);
+            if (missing != null) {
+                complete(missing);
+                return;
+            }
+            truncate(base);
+            states[top] = IN_BODY;
+            pushFrame(fn.body(), Eval.extendedFunctionEnv(fn, args));
+        } else {
+            complete(Eval.applyBuiltin(call, function, args));
+        }
+    }
+
+    /** Pops the frames of the innermost running function body and makes the call frame yield {@code value}. */
+    private void unwindReturn(NullangObject value) {
+        while (fp > 0 && !(states[fp - 1] == IN_BODY && nodes[fp - 1] instanceof CallExpression)) {
+            popFrame();
+        }
+        if (fp == 0) {
+            finish(new ReturnValue(value));
+        } else {
+            complete(value);
+        }
+    }
+
+    /** Pushes the value of a leaf node directly, or a frame for anything with children. */
+    private void descend(Node node, Env env) {
+        var value = leaf(node, env);
+        if (value != null) {
+            produce(value);
+        } else {
+            pushFrame(node, env);
+        }
+    }
+
+    /** Like {@link #descend}, but a missing child leaves null on the value stack. */
+    private void descendOrNull(Node node, Env env) {
+        if (node == null) {
+            produce(null);
+        } else {
+            descend(node, env);
+        }
+    }
+
+    private static NullangObject leaf(Node node, Env env) {
+        return switch (node) {
+            case IntegerIdentifier integer -> integer.getObject();
+            case StringIdentifier string -> new StringObject(string.getValue());
+            case BooleanIdentifier bool -> bool.getValue() ? BooleanObject.TRUE : BooleanObject.FALSE;
+            case Identifier identifier -> Eval.evalIdentifier(identifier, env);
+            case FnExpression fn -> new FunctionObject(fn.parameters(), fn.body(), env);
+            case null, default -> null;
+        };
+    }
+
+    /** Evaluates {@code node} in place of the frame at {@code top}, so it yields the frame's value. */
+    private void replace(int top, Node node, Env env) {
+        var value = leaf(node, env);
+        if (value != null) {
+            complete(value);
+        } else {
+            nodes[top] = node;
+            states[top] = 0;
+            envs[top] = env;
+        }
+    }
+
+    /** Pops the current frame and passes {@code value} to the one below. */
+    private void complete(NullangObject value) {
+        truncate(bases[fp - 1]);
+        popFrame();
+        if (fp == 0) {
+            finish(value);
+        } else {
+            produce(value);
+        }
+    }
+
+    /** Errors end the whole evaluation, as they propagate all the way out in {@link Eval}. */
+    private void produce(NullangObject value) {
+        if (value instanceof ErrorObject) {
+            while (fp > 0) {
+                popFrame();
+            }
+            finish(value);
+            return;
+        }
+        if (sp == values.length) {
+            values = Arrays.copyOf(values, sp * 2);
+        }
+        values[sp++] = value;
+    }
+
+    private void pushFrame(Node node, Env env) {
+        if (fp == maxFrames) {
+            while (fp > 0) {
+                popFrame();
+            }
+            finish(new ErrorObject("stack overflow: more than " + maxFrames + " frames"));
+            return;
+        }
+        if (fp == nodes.length) {
+            int capacity = (int) Math.min((long) fp * 2, maxFrames);
+            nodes = Arrays.copyOf(nodes, capacity);
+            states = Arrays.copyOf(states, capacity);
+            envs = Arrays.copyOf(envs, capacity);
+            bases = Arrays.copyOf(bases, capacity);
+        }
+        nodes[fp] = node;
+        states[fp] = 0;
+        envs[fp] = env;
+        bases[fp] = sp;
+        fp++;
+    }
+
+    private void popFrame() {
+        fp--;
+        nodes[fp] = null;
+        envs[fp] = null;
+    }
+
+    private NullangObject pop() {
+        var value = values[--sp];
+        values[sp] = null;
+        return value;
+    }
+
+    private List<NullangObject> operands(int from) {
+        return new ArrayList<>(Arrays.asList(values).subList(from, sp));
+    }
+
+    private void truncate(int height) {
+        Arrays.fill(values, height, sp, null);
+        sp = height;
+    }
+
+    private void finish(NullangObject value) {
+        truncate(0);
+        result = value;
+        done = true;
+    }
+}
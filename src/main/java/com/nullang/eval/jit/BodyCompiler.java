@@ -0,0 +1,253 @@
+package com.nullang.eval.jit;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.expression.BooleanIdentifier;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.IfExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.ReturnStatement;
+import com.nullang.ast.statement.Statement;
+import com.nullang.ast.statement.StringIdentifier;
+import com.nullang.eval.node.InfixSite;
+import com.nullang.nullangobject.StringObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.nullang.eval.jit.Code.*;
+
+/**
+ * Translates one resolved function body into the {@code call} method of a {@link CompiledBody}
+ * subclass. Literals, identifiers, infix operators, ifs, calls, lets and returns are compiled;
+ * any other node is handed back to the interpreter with the same frame. Calls in tail position
+ * return a {@link com.nullang.nullangobject.TailCall} for the caller's trampoline to make.
+ */
+final class BodyCompiler {
+    private static final String BODY = "com/nullang/eval/jit/CompiledBody";
+    private static final String OBJECT = "com/nullang/nullangobject/NullangObject";
+    private static final String OBJECT_DESC = "L" + OBJECT + ";";
+    private static final String ENV_DESC = "Lcom/nullang/eval/Env;";
+    private static final String EVAL_DESC = "Lcom/nullang/eval/Eval;";
+    private static final String CALL_DESC = "(" + EVAL_DESC + ENV_DESC + ")" + OBJECT_DESC;
+
+    private static final int THIS = 0;
+    private static final int EVAL = 1;
+    private static final int FRAME = 2;
+    private static final int SITES = 3;
+
+    private final ClassWriter writer;
+    private final Code code;
+    private final List<Object> sites = new ArrayList<>();
+
+    private BodyCompiler(String className) {
+        this.writer = new ClassWriter(className, BODY);
+        this.code = new Code(writer, SITES + 1);
+    }
+
+    record Result(byte[] classBytes, Object[] sites) {
+    }
+
+    static Result compile(String className, BlockStatement body) {
+        var compiler = new BodyCompiler(className);
+        return new Result(compiler.compileClass(body), compiler.sites.toArray());
+    }
+
+    private byte[] compileClass(BlockStatement body) {
+        var constructor = new Code(writer, 2);
+        constructor.aload(0);
+        constructor.aload(1);
+        constructor.invoke(INVOKESPECIAL, BODY, "<init>", "([Ljava/lang/Object;)V");
+        constructor.op(RETURN, 0);
+        writer.addMethod("<init>", "([Ljava/lang/Object;)V", constructor);
+
+        code.aload(THIS);
+        code.field(GETFIELD, BODY, "sites", "[Ljava/lang/Object;");
+        code.astore(SITES);
+        block(body, true);
+        code.op(ARETURN, -1);
+        writer.addMethod("call", CALL_DESC, code);
+
+        return writer.toByteArray();
+    }
+
+    /** Leaves the block's value on the stack, or null for an empty block as the interpreter does. */
+    private void block(BlockStatement block, boolean tail) {
+        var statements = block.getStatements();
+        if (statements.isEmpty()) {
+            code.op(ACONST_NULL, 1);
+            return;
+        }
+        for (int i = 0; i < statements.size(); i++) {
+            var statement = statements.get(i);
+            statement(statement, tail && i == statements.size() - 1);
+            if (statement instanceof ReturnStatement) {
+                // the rest of the block is unreachable; the null only keeps the stack shape
+                code.op(ACONST_NULL, 1);
+                return;
+            }
+            if (i < statements.size() - 1) {
+                code.op(POP, -1);
+            }
+        }
+    }
+
+    private void statement(Statement statement, boolean tail) {
+        switch (statement) {
+            case ExpressionStatement exp ->
+                    expression(exp.expression(), tail);
+            case ReturnStatement returnStatement when returnStatement.getReturnValue() == null -> {
+                code.field(GETSTATIC, "com/nullang/nullangobject/NullObject", "NULL", "Lcom/nullang/nullangobject/NullObject;");
+                code.op(ARETURN, -1);
+            }
+            case ReturnStatement returnStatement -> {
+                expression(returnStatement.getReturnValue(), true);
+                code.op(ARETURN, -1);
+            }
+            case LetStatement let when let.getName().getDepth() == 0 -> {
+                expression(let.getValue());
+                code.op(DUP, 1);
+                code.aload(FRAME);
+                code.push(let.getName().getSlot());
+                runtime("setLocal", "(" + OBJECT_DESC + ENV_DESC + "I)V");
+            }
+            default ->
+                    interpret(statement);
+        }
+    }
+
+    private void expression(Expression expression) {
+        expression(expression, false);
+    }
+
+    private void expression(Expression expression, boolean tail) {
+        switch (expression) {
+            case null ->
+                    throw new IllegalStateException("missing expression");
+            case IntegerIdentifier integer ->
+                    site(integer.getObject(), OBJECT);
+            case StringIdentifier string ->
+                    site(new StringObject(string.getValue()), OBJECT);
+            case BooleanIdentifier bool ->
+                    code.field(GETSTATIC, "com/nullang/nullangobject/BooleanObject", bool.getValue() ? "TRUE" : "FALSE",
+                            "Lcom/nullang/nullangobject/BooleanObject;");
+            case Identifier identifier ->
+                    identifier(identifier);
+            case InfixExpression infix ->
+                    infix(infix);
+            case IfExpression ifExpression ->
+                    ifExpression(ifExpression, tail);
+            case CallExpression call ->
+                    call(call, tail);
+            default ->
+                    interpret(expression);
+        }
+    }
+
+    private void identifier(Identifier identifier) {
+        String identifierDesc = "Lcom/nullang/ast/Identifier;";
+        if (identifier.getDepth() == 0) {
+            code.aload(FRAME);
+            code.push(identifier.getSlot());
+            site(identifier, "com/nullang/ast/Identifier");
+            code.aload(EVAL);
+            runtime("local", "(" + ENV_DESC + "I" + identifierDesc + EVAL_DESC + ")" + OBJECT_DESC);
+        } else if (identifier.getDepth() > 0) {
+            code.aload(FRAME);
+            code.push(identifier.getDepth());
+            code.push(identifier.getSlot());
+            site(identifier, "com/nullang/ast/Identifier");
+            code.aload(EVAL);
+            runtime("outer", "(" + ENV_DESC + "II" + identifierDesc + EVAL_DESC + ")" + OBJECT_DESC);
+        } else if (identifier.getDepth() == Identifier.BUILTIN) {
+            code.aload(FRAME);
+            code.push(identifier.getSlot());
+            site(identifier, "com/nullang/ast/Identifier");
+            code.aload(EVAL);
+            runtime("builtin", "(" + ENV_DESC + "I" + identifierDesc + EVAL_DESC + ")" + OBJECT_DESC);
+        } else {
+            code.aload(FRAME);
+            site(identifier, "com/nullang/ast/Identifier");
+            code.aload(EVAL);
+            runtime("global", "(" + ENV_DESC + identifierDesc + EVAL_DESC + ")" + OBJECT_DESC);
+        }
+    }
+
+    private void infix(InfixExpression infix) {
+        expression(infix.getLeft());
+        expression(infix.getRight());
+        site(new InfixSite(infix), "com/nullang/eval/node/InfixSite");
+        var helper = switch (infix.getOperatorKind()) {
+            case PLUS -> "add";
+            case MINUS -> "sub";
+            case ASTERISK -> "mul";
+            case LT -> "lessThan";
+            case GT -> "greaterThan";
+            default -> "infix";
+        };
+        runtime(helper, "(" + OBJECT_DESC + OBJECT_DESC + "Lcom/nullang/eval/node/InfixSite;)" + OBJECT_DESC);
+    }
+
+    private void ifExpression(IfExpression ifExpression, boolean tail) {
+        expression(ifExpression.getCondition());
+        runtime("truthy", "(" + OBJECT_DESC + ")Z");
+
+        var otherwise = code.label();
+        var end = code.label();
+        code.branch(IFEQ, otherwise);
+        int depth = code.depth();
+        block(ifExpression.getConsequence(), tail);
+        code.branch(GOTO, end);
+
+        code.resetDepth(depth);
+        code.bind(otherwise);
+        if (ifExpression.getAlternative().isPresent()) {
+            block(ifExpression.getAlternative().get(), tail);
+        } else {
+            code.field(GETSTATIC, "com/nullang/nullangobject/NullObject", "NULL", "Lcom/nullang/nullangobject/NullObject;");
+        }
+        code.bind(end);
+    }
+
+    private void call(CallExpression call, boolean tail) {
+        expression(call.function());
+        var arguments = call.arguments();
+        code.push(arguments.size());
+        code.type(ANEWARRAY, OBJECT);
+        for (int i = 0; i < arguments.size(); i++) {
+            code.op(DUP, 1);
+            code.push(i);
+            expression(arguments.get(i));
+            code.op(AASTORE, -3);
+        }
+        site(call, "com/nullang/ast/expression/CallExpression");
+        code.aload(EVAL);
+        runtime(tail ? "tailCall" : "call", "(" + OBJECT_DESC + "[" + OBJECT_DESC + "Lcom/nullang/ast/expression/CallExpression;"
+                + EVAL_DESC + ")" + OBJECT_DESC);
+    }
+
+    private void interpret(Node node) {
+        site(node, "com/nullang/ast/Node");
+        code.aload(EVAL);
+        code.aload(FRAME);
+        runtime("interpret", "(Lcom/nullang/ast/Node;" + EVAL_DESC + ENV_DESC + ")" + OBJECT_DESC);
+    }
+
+    /** Pushes {@code value}, read from the sites array, as an instance of {@code type}. */
+    private void site(Object value, String type) {
+        code.aload(SITES);
+        code.push(sites.size());
+        code.op(AALOAD, -1);
+        code.type(CHECKCAST, type);
+        sites.add(value);
+    }
+
+    private void runtime(String name, String descriptor) {
+        code.invoke(INVOKESTATIC, JitRuntime.NAME, name, descriptor);
+    }
+}
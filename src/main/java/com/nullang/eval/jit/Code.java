@@ -0,0 +1,203 @@
+package com.nullang.eval.jit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** A method body being assembled, tracking the operand stack depth as instructions are added. */
+final class Code {
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int ALOAD = 0x19;
+    static final int AALOAD = 0x32;
+    static final int ASTORE = 0x3a;
+    static final int AASTORE = 0x53;
+    static final int POP = 0x57;
+    static final int DUP = 0x59;
+    static final int IFEQ = 0x99;
+    static final int GOTO = 0xa7;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETSTATIC = 0xb2;
+    static final int GETFIELD = 0xb4;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int ANEWARRAY = 0xbd;
+    static final int CHECKCAST = 0xc0;
+
+    private final ClassWriter owner;
+    private final int maxLocals;
+    private byte[] code = new byte[256];
+    private int length;
+    private int depth;
+    private int maxStack;
+
+    Code(ClassWriter owner, int maxLocals) {
+        this.owner = owner;
+        this.maxLocals = maxLocals;
+    }
+
+    final class Label {
+        private int target = -1;
+        private final List<Integer> branches = new ArrayList<>();
+    }
+
+    Label label() {
+        return new Label();
+    }
+
+    void bind(Label label) {
+        label.target = length;
+        for (int at : label.branches) {
+            patch(at, label.target - at);
+        }
+    }
+
+    void branch(int opcode, Label label) {
+        int at = length;
+        op(opcode, opcode == IFEQ ? -1 : 0);
+        if (label.target >= 0) {
+            u2(label.target - at);
+        } else {
+            label.branches.add(at);
+            u2(0);
+        }
+    }
+
+    void op(int opcode, int stackDelta) {
+        u1(opcode);
+        adjust(stackDelta);
+    }
+
+    void aload(int local) {
+        if (local <= 3) {
+            op(0x2a + local, 1);
+        } else {
+            op(ALOAD, 1);
+            u1(local);
+        }
+    }
+
+    void astore(int local) {
+        if (local <= 3) {
+            op(0x4b + local, -1);
+        } else {
+            op(ASTORE, -1);
+            u1(local);
+        }
+    }
+
+    void push(int value) {
+        if (value >= -1 && value <= 5) {
+            op(ICONST_0 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            op(BIPUSH, 1);
+            u1(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            op(SIPUSH, 1);
+            u2(value);
+        } else {
+            op(LDC_W, 1);
+            u2(owner.integer(value));
+        }
+    }
+
+    void type(int opcode, String internalName) {
+        op(opcode, 0);
+        u2(owner.classRef(internalName));
+    }
+
+    void field(int opcode, String fieldOwner, String name, String descriptor) {
+        op(opcode, opcode == GETSTATIC ? 1 : 0);
+        u2(owner.fieldRef(fieldOwner, name, descriptor));
+    }
+
+    void invoke(int opcode, String methodOwner, String name, String descriptor) {
+        int delta = -argumentCount(descriptor) + (descriptor.endsWith(")V") ? 0 : 1);
+        if (opcode != INVOKESTATIC) {
+            delta--;
+        }
+        op(opcode, delta);
+        u2(owner.methodRef(methodOwner, name, descriptor));
+    }
+
+    /** Sets the tracked depth after an unconditional jump, where it is whatever the target expects. */
+    void resetDepth(int depth) {
+        this.depth = depth;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    int length() {
+        return length;
+    }
+
+    int maxStack() {
+        return maxStack;
+    }
+
+    int maxLocals() {
+        return maxLocals;
+    }
+
+    byte[] bytes() {
+        return code;
+    }
+
+    private void adjust(int delta) {
+        depth += delta;
+        maxStack = Math.max(maxStack, depth);
+    }
+
+    private void patch(int at, int offset) {
+        if (offset > Short.MAX_VALUE) {
+            throw new IllegalStateException("method too large to compile");
+        }
+        code[at + 1] = (byte) (offset >> 8);
+        code[at + 2] = (byte) offset;
+    }
+
+    private void u1(int value) {
+        if (length == 0xFFFF) {
+            throw new IllegalStateException("method too large to compile");
+        }
+        if (length == code.length) {
+            code = Arrays.copyOf(code, length * 2);
+        }
+        code[length++] = (byte) value;
+    }
+
+    private void u2(int value) {
+        checkOffset(value);
+        u1(value >> 8);
+        u1(value);
+    }
+
+    private static void checkOffset(int value) {
+        if (value < Short.MIN_VALUE || value > 0xFFFF) {
+            throw new IllegalStateException("method too large to compile");
+        }
+    }
+
+    private static int argumentCount(String descriptor) {
+        int count = 0;
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            while (c == '[') {
+                c = descriptor.charAt(++i);
+            }
+            if (c == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            i++;
+            count++;
+        }
+        return count;
+    }
+}
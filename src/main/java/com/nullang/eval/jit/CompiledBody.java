@@ -0,0 +1,28 @@
+package com.nullang.eval.jit;
+
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * A function body compiled to a JVM class. {@code sites} holds the AST nodes and constants the
+ * generated code refers to, indexed by the order the compiler met them.
+ */
+public abstract class CompiledBody {
+    final Object[] sites;
+
+    protected CompiledBody(Object[] sites) {
+        this.sites = sites;
+    }
+
+    /** Runs the body in a frame already holding the arguments; errors come back as values. */
+    public final NullangObject invoke(Eval eval, Env frame) {
+        try {
+            return call(eval, frame);
+        } catch (ErrorObjectException e) {
+            return e.error();
+        }
+    }
+
+    protected abstract NullangObject call(Eval eval, Env frame);
+}
@@ -0,0 +1,17 @@
+package com.nullang.eval.jit;
+
+import com.nullang.nullangobject.ErrorObject;
+
+/** Unwinds compiled code to the body's entry point when an expression evaluates to an error. */
+final class ErrorObjectException extends RuntimeException {
+    private final ErrorObject error;
+
+    ErrorObjectException(ErrorObject error) {
+        super(error.message(), null, false, false);
+        this.error = error;
+    }
+
+    ErrorObject error() {
+        return error;
+    }
+}
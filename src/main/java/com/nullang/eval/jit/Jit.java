@@ -0,0 +1,87 @@
+package com.nullang.eval.jit;
+
+import com.nullang.ast.statement.BlockStatement;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.nullangobject.NullangObject;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts calls per function body and, once a body reaches {@code threshold} calls, compiles it to
+ * a hidden class so HotSpot can optimise it like Java code. Bodies that fail to compile stay
+ * interpreted for good. The counts and compiled bodies are kept here, not on the AST, so they live
+ * as long as this JIT and one parsed program can be run from several threads.
+ */
+public class Jit {
+    public static final String THRESHOLD_PROPERTY = "nullang.jit.threshold";
+    public static final int DEFAULT_THRESHOLD = 1000;
+
+    /** Never compiles. */
+    public static final Jit DISABLED = new Jit(-1);
+
+    private static final CompiledBody NOT_COMPILABLE = new CompiledBody(new Object[0]) {
+        @Override
+        protected NullangObject call(Eval eval, Env frame) {
+            throw new IllegalStateException("body was not compiled");
+        }
+    };
+
+    private final int threshold;
+    private final Map<BlockStatement, Tier> tiers = new ConcurrentHashMap<>();
+
+    /** A negative threshold disables compilation; zero compiles every body on its first call. */
+    public Jit(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /** A new JIT configured by {@value #THRESHOLD_PROPERTY}. */
+    public static Jit fromSystemProperty() {
+        return new Jit(Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD));
+    }
+
+    /** The compiled form of {@code body}, compiling it if it just got hot, or null to interpret it. */
+    public CompiledBody compiledBody(BlockStatement body) {
+        if (threshold < 0 || body.getSlotNames() == null) {
+            return null;
+        }
+        var tier = tiers.computeIfAbsent(body, key -> new Tier());
+        var compiled = tier.compiled;
+        // Only the call that crosses the threshold compiles; the others interpret until it is published.
+        if (compiled == null && tier.invocations.incrementAndGet() == threshold + 1) {
+            compiled = compile(body);
+            tier.compiled = compiled;
+        }
+        return compiled == NOT_COMPILABLE ? null : compiled;
+    }
+
+    /** The compiled form of {@code body} so far, without counting a call. */
+    CompiledBody compiled(BlockStatement body) {
+        var tier = tiers.get(body);
+        return tier == null ? null : tier.compiled;
+    }
+
+    int invocations(BlockStatement body) {
+        var tier = tiers.get(body);
+        return tier == null ? 0 : tier.invocations.get();
+    }
+
+    private static CompiledBody compile(BlockStatement body) {
+        try {
+            var result = BodyCompiler.compile("com/nullang/eval/jit/CompiledFunction", body);
+            var type = MethodHandles.lookup().defineHiddenClass(result.classBytes(), true).lookupClass();
+            return (CompiledBody) type.getDeclaredConstructor(Object[].class).newInstance((Object) result.sites());
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return NOT_COMPILABLE;
+        }
+    }
+
+    /** The call count and, once hot, the compiled form of one body. */
+    private static final class Tier {
+        final AtomicInteger invocations = new AtomicInteger();
+        volatile CompiledBody compiled;
+    }
+}
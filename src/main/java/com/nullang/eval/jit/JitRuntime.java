@@ -0,0 +1,117 @@
+package com.nullang.eval.jit;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.Node;
+import com.nullang.ast.expression.CallExpression;
+import com.nullang.eval.Builtins;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.eval.node.InfixSite;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.FunctionObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.TailCall;
+
+import java.util.Arrays;
+
+/**
+ * Static entry points the generated code calls. Integer operators get an inline fast path;
+ * everything else defers to the interpreter so compiled and interpreted code agree.
+ */
+final class JitRuntime {
+    static final String NAME = "com/nullang/eval/jit/JitRuntime";
+
+    private JitRuntime() {
+    }
+
+    static NullangObject interpret(Node node, Eval eval, Env frame) {
+        return check(eval.evaluate(node, frame));
+    }
+
+    static NullangObject local(Env frame, int slot, Identifier identifier, Eval eval) {
+        var value = frame.get(0, slot);
+        return value != null ? value : interpret(identifier, eval, frame);
+    }
+
+    static NullangObject outer(Env frame, int depth, int slot, Identifier identifier, Eval eval) {
+        var value = frame.get(depth, slot);
+        return value != null ? value : interpret(identifier, eval, frame);
+    }
+
+    static NullangObject global(Env frame, Identifier identifier, Eval eval) {
+        var value = frame.getGlobal(identifier.getValue());
+        return value != null ? value : interpret(identifier, eval, frame);
+    }
+
+    static NullangObject builtin(Env frame, int index, Identifier identifier, Eval eval) {
+        return frame.shadowsBuiltins() ? interpret(identifier, eval, frame) : Builtins.get(index);
+    }
+
+    static void setLocal(NullangObject value, Env frame, int slot) {
+        frame.set(slot, value);
+    }
+
+    static boolean truthy(NullangObject condition) {
+        return condition != NullObject.NULL && condition != BooleanObject.FALSE;
+    }
+
+    static NullangObject call(NullangObject function, NullangObject[] args, CallExpression call, Eval eval) {
+        return check(eval.applyFunction(call, function, Arrays.asList(args)));
+    }
+
+    static NullangObject tailCall(NullangObject function, NullangObject[] args, CallExpression call, Eval eval) {
+        if (function instanceof FunctionObject fn) {
+            return new TailCall(call, fn, Arrays.asList(args));
+        }
+        return call(function, args, call, eval);
+    }
+
+    static NullangObject add(NullangObject left, NullangObject right, InfixSite site) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return IntegerObject.valueOf(l.value() + r.value());
+        }
+        return infix(left, right, site);
+    }
+
+    static NullangObject sub(NullangObject left, NullangObject right, InfixSite site) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return IntegerObject.valueOf(l.value() - r.value());
+        }
+        return infix(left, right, site);
+    }
+
+    static NullangObject mul(NullangObject left, NullangObject right, InfixSite site) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return IntegerObject.valueOf(l.value() * r.value());
+        }
+        return infix(left, right, site);
+    }
+
+    static NullangObject lessThan(NullangObject left, NullangObject right, InfixSite site) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return l.value() < r.value() ? BooleanObject.TRUE : BooleanObject.FALSE;
+        }
+        return infix(left, right, site);
+    }
+
+    static NullangObject greaterThan(NullangObject left, NullangObject right, InfixSite site) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return l.value() > r.value() ? BooleanObject.TRUE : BooleanObject.FALSE;
+        }
+        return infix(left, right, site);
+    }
+
+    static NullangObject infix(NullangObject left, NullangObject right, InfixSite site) {
+        return check(site.execute(left, right));
+    }
+
+    private static NullangObject check(NullangObject value) {
+        if (value instanceof ErrorObject error) {
+            throw new ErrorObjectException(error);
+        }
+        return value;
+    }
+}
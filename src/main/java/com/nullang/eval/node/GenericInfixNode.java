@@ -0,0 +1,70 @@
+package com.nullang.eval.node;
+
+import com.nullang.ast.expression.Operator;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+import com.nullang.nullangobject.StringObject;
+
+/** Handles every operand combination; sites that saw more than one type end up here for good. */
+public final class GenericInfixNode extends InfixNode {
+    GenericInfixNode(InfixSite site) {
+        super(site);
+    }
+
+    @Override
+    public NullangObject execute(NullangObject left, NullangObject right) {
+        var operator = site.getOperatorKind();
+        if (left.type() == ObjectType.INTEGER && right.type() == ObjectType.INTEGER) {
+            return evaluateIntegerInfixExpression(left, right);
+        } else if (operator == Operator.EQ) {
+            return bool(left == right);
+        } else if (operator == Operator.NOT_EQ) {
+            return bool(left != right);
+        } else if (left.type() == ObjectType.STRING && right.type() == ObjectType.STRING) {
+            if (operator == Operator.PLUS) {
+                return ((StringObject) left).concat((StringObject) right);
+            }
+
+            return new ErrorObject("unknown operator: " + left.type() + " " + operator.symbol() + " " + right.type(), site.getToken());
+        } else if (left.type() != right.type()) {
+            return new ErrorObject("type mismatch: " + left.type() + " " + operator.symbol() + " " + right.type(), site.getToken());
+        }
+
+        return new ErrorObject("unknown operator: " + left.type() + " " + operator.symbol() + " " + right.type(), site.getToken());
+    }
+
+    private NullangObject evaluateIntegerInfixExpression(NullangObject left, NullangObject right) {
+        var operator = site.getOperatorKind();
+        var leftValue = ((IntegerObject) left).value();
+        var rightValue = ((IntegerObject) right).value();
+
+        return switch (operator) {
+            case PLUS ->
+                    IntegerObject.valueOf(leftValue + rightValue);
+            case MINUS ->
+                    IntegerObject.valueOf(leftValue - rightValue);
+            case ASTERISK ->
+                    IntegerObject.valueOf(leftValue * rightValue);
+            case SLASH ->
+                    IntegerObject.valueOf(leftValue / rightValue);
+
+            case LT ->
+                    bool(leftValue < rightValue);
+            case GT ->
+                    bool(leftValue > rightValue);
+            case EQ ->
+                    bool(leftValue == rightValue);
+            case NOT_EQ ->
+                    bool(leftValue != rightValue);
+            default ->
+                    new ErrorObject("unknown operator: " + left.type() + " " + operator.symbol() + " " + right.type(), site.getToken());
+        };
+    }
+
+    private static NullangObject bool(boolean value) {
+        return value ? BooleanObject.TRUE : BooleanObject.FALSE;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nullang.eval.node;
+
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * The executable part of an infix expression. A node starts uninitialized, specializes itself on
+ * the operand types it first sees, and rewrites its {@link InfixSite} to {@link GenericInfixNode}
+ * when its guard fails, so type-stable sites skip the operator and type dispatch.
+ */
+public abstract class InfixNode {
+    protected final InfixSite site;
+
+    protected InfixNode(InfixSite site) {
+        this.site = site;
+    }
+
+    public abstract NullangObject execute(NullangObject left, NullangObject right);
+
+    protected final NullangObject replace(InfixNode node, NullangObject left, NullangObject right) {
+        site.setNode(node);
+        return node.execute(left, right);
+    }
+}
@@ -0,0 +1,87 @@
+package com.nullang.eval.node;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.IntegerIdentifier;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.Operator;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.token.Token;
+
+/**
+ * The runtime state for one infix expression: the node it has specialized to so far, and whether
+ * the unboxed arithmetic path is still worth trying. The tree walkers keep it on the expression
+ * itself, see {@link #of}, so it lives exactly as long as the expression does.
+ */
+public final class InfixSite implements InfixExpression.Site {
+    private final InfixExpression expression;
+    private InfixNode node;
+    private boolean unboxedArithmetic;
+
+    public InfixSite(InfixExpression expression) {
+        this.expression = expression;
+        this.node = new UninitializedInfixNode(this);
+        this.unboxedArithmetic = isArithmetic(expression)
+                && (expression.getLeft() instanceof InfixExpression || expression.getRight() instanceof InfixExpression);
+    }
+
+    /** The site stored on {@code expression}, created the first time the expression runs. */
+    public static InfixSite of(InfixExpression expression) {
+        if (expression.getSite() instanceof InfixSite site) {
+            return site;
+        }
+        var site = new InfixSite(expression);
+        expression.setSite(site);
+        return site;
+    }
+
+    public InfixExpression expression() {
+        return expression;
+    }
+
+    public Operator getOperatorKind() {
+        return expression.getOperatorKind();
+    }
+
+    public Token getToken() {
+        return expression.getToken();
+    }
+
+    public NullangObject execute(NullangObject left, NullangObject right) {
+        return node.execute(left, right);
+    }
+
+    /** The current, possibly specialized, implementation of the operator. */
+    public InfixNode node() {
+        return node;
+    }
+
+    void setNode(InfixNode node) {
+        this.node = node;
+    }
+
+    /**
+     * Whether this is {@code + - * /} over integer literals, identifiers and more such arithmetic,
+     * nested at least once, so the evaluator can compute it without boxing intermediate results.
+     */
+    public boolean isUnboxedArithmetic() {
+        return unboxedArithmetic;
+    }
+
+    /** Turns the unboxed path off after it saw an operand that is not an integer. */
+    public void disableUnboxedArithmetic() {
+        this.unboxedArithmetic = false;
+    }
+
+    private static boolean isArithmetic(Expression expression) {
+        return switch (expression) {
+            case IntegerIdentifier literal -> literal.getValue() != null;
+            case Identifier identifier -> true;
+            case InfixExpression infix -> switch (infix.getOperatorKind()) {
+                case PLUS, MINUS, ASTERISK, SLASH -> isArithmetic(infix.getLeft()) && isArithmetic(infix.getRight());
+                default -> false;
+            };
+            case null, default -> false;
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.nullang.eval.node;
+
+import com.nullang.ast.expression.Operator;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullangObject;
+
+/** An operator specialized for two integers. */
+public abstract class IntegerInfixNode extends InfixNode {
+    private IntegerInfixNode(InfixSite site) {
+        super(site);
+    }
+
+    static IntegerInfixNode of(InfixSite site, Operator operator) {
+        return switch (operator) {
+            case PLUS -> new Add(site);
+            case MINUS -> new Sub(site);
+            case ASTERISK -> new Mul(site);
+            case SLASH -> new Div(site);
+            case LT -> new LessThan(site);
+            case GT -> new GreaterThan(site);
+            case EQ -> new Equal(site);
+            case NOT_EQ -> new NotEqual(site);
+            default -> null;
+        };
+    }
+
+    @Override
+    public final NullangObject execute(NullangObject left, NullangObject right) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            return apply(l.value(), r.value());
+        }
+        return replace(new GenericInfixNode(site), left, right);
+    }
+
+    protected abstract NullangObject apply(int left, int right);
+
+    private static NullangObject bool(boolean value) {
+        return value ? BooleanObject.TRUE : BooleanObject.FALSE;
+    }
+
+    public static final class Add extends IntegerInfixNode {
+        Add(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return IntegerObject.valueOf(left + right);
+        }
+    }
+
+    public static final class Sub extends IntegerInfixNode {
+        Sub(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return IntegerObject.valueOf(left - right);
+        }
+    }
+
+    public static final class Mul extends IntegerInfixNode {
+        Mul(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return IntegerObject.valueOf(left * right);
+        }
+    }
+
+    public static final class Div extends IntegerInfixNode {
+        Div(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return IntegerObject.valueOf(left / right);
+        }
+    }
+
+    public static final class LessThan extends IntegerInfixNode {
+        LessThan(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return bool(left < right);
+        }
+    }
+
+    public static final class GreaterThan extends IntegerInfixNode {
+        GreaterThan(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return bool(left > right);
+        }
+    }
+
+    public static final class Equal extends IntegerInfixNode {
+        Equal(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return bool(left == right);
+        }
+    }
+
+    public static final class NotEqual extends IntegerInfixNode {
+        NotEqual(InfixSite site) {
+            super(site);
+        }
+
+        @Override
+        protected NullangObject apply(int left, int right) {
+            return bool(left != right);
+        }
+    }
+}
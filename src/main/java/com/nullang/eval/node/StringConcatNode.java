@@ -0,0 +1,18 @@
+package com.nullang.eval.node;
+
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.StringObject;
+
+public final class StringConcatNode extends InfixNode {
+    StringConcatNode(InfixSite site) {
+        super(site);
+    }
+
+    @Override
+    public NullangObject execute(NullangObject left, NullangObject right) {
+        if (left instanceof StringObject l && right instanceof StringObject r) {
+            return l.concat(r);
+        }
+        return replace(new GenericInfixNode(site), left, right);
+    }
+}
@@ -0,0 +1,30 @@
+package com.nullang.eval.node;
+
+import com.nullang.ast.expression.Operator;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.StringObject;
+
+public final class UninitializedInfixNode extends InfixNode {
+    public UninitializedInfixNode(InfixSite site) {
+        super(site);
+    }
+
+    @Override
+    public NullangObject execute(NullangObject left, NullangObject right) {
+        return replace(specialize(left, right), left, right);
+    }
+
+    private InfixNode specialize(NullangObject left, NullangObject right) {
+        var operator = site.getOperatorKind();
+        if (left instanceof IntegerObject && right instanceof IntegerObject) {
+            var node = IntegerInfixNode.of(site, operator);
+            if (node != null) {
+                return node;
+            }
+        } else if (left instanceof StringObject && right instanceof StringObject && operator == Operator.PLUS) {
+            return new StringConcatNode(site);
+        }
+        return new GenericInfixNode(site);
+    }
+}
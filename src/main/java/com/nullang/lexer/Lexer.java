@@ -1,6 +1,9 @@
 package com.nullang.lexer;
 
+import com.nullang.token.LineIndex;
 import com.nullang.token.Token;
+import com.nullang.token.TokenSource;
+import com.nullang.token.TokenStream;
 import com.nullang.token.TokenType;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
@@ -8,169 +11,429 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class Lexer implements TokenStream {
+    private static final int EOF = -1;
+    private static final int BLOCK_SIZE = 8192;
 
-public class Lexer implements AutoCloseable {
     private final Logger log = LoggerFactory.getLogger(Lexer.class);
     private final Reader reader;
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder;
+    private final SymbolTable symbols;
+    private final LineIndex lines = new LineIndex();
+    /** Gives position to tokens with fixed text, which need no buffer. */
+    private final TokenSource positions = TokenSource.positionsOnly(lines);
+    /** Shared by every token sliced from the current buffer. */
+    private TokenSource window;
+    private char[] buffer;
+    private int base;
+    private int length;
+    private int position;
+    private int tokenStart;
+    private int tokenEnd;
     private int currentChar;
     private int peekedChar;
-    private static final Map<String, TokenType> keywords = Map.of(
-            "fn", TokenType.FUNCTION,
-            "let", TokenType.LET,
-            "if", TokenType.IF,
-            "else", TokenType.ELSE,
-            "return", TokenType.RETURN,
-            "true", TokenType.TRUE,
-            "false", TokenType.FALSE
-    );
 
 
     public Lexer(Reader reader) {
+        this(reader, new SymbolTable());
+    }
+
+    public Lexer(Reader reader, SymbolTable symbols) {
         this.reader = reader;
-        try {
-            this.currentChar = reader.read();
-            this.peekedChar = reader.read();
+        this.bytes = null;
+        this.decoder = null;
+        this.symbols = symbols;
+        this.buffer = new char[BLOCK_SIZE];
+        this.length = 0;
+        init();
+    }
+
+    public Lexer(char[] source) {
+        this(source, source.length);
+    }
+
+    public Lexer(char[] source, int length) {
+        this(source, length, new SymbolTable());
+    }
+
+    public Lexer(char[] source, int length, SymbolTable symbols) {
+        this.reader = null;
+        this.bytes = null;
+        this.decoder = null;
+        this.symbols = symbols;
+        this.buffer = source;
+        this.length = length;
+        init();
+    }
+
+    public Lexer(String source) {
+        this(source.toCharArray());
+    }
+
+    /**
+     * Lexes UTF-8 bytes in place. ASCII is widened straight into a block-sized char window,
+     * so a mapped file never has to be decoded onto the heap as a whole.
+     */
+    public Lexer(ByteBuffer source, SymbolTable symbols) {
+        this.reader = null;
+        this.bytes = source;
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.symbols = symbols;
+        this.buffer = new char[BLOCK_SIZE];
+        this.length = 0;
+        init();
+    }
+
+    public Lexer(ByteBuffer source) {
+        this(source, new SymbolTable());
+    }
+
+    public static Lexer mapped(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Lexer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Drains the reader in blocks up front so that lexing runs over a plain char array
+     * instead of calling {@link Reader#read()} for every character.
+     */
+    public static Lexer buffered(Reader reader) {
+        char[] source = new char[BLOCK_SIZE];
+        int length = 0;
+
+        try (reader) {
+            int read;
+            while ((read = reader.read(source, length, source.length - length)) != EOF) {
+                length += read;
+                if (length == source.length) {
+                    source = Arrays.copyOf(source, source.length * 2);
+                }
+            }
         } catch (IOException e) {
-            log.error("Exception while creating Lexer object {}", e.getMessage(), e);
+            LoggerFactory.getLogger(Lexer.class).error("Exception while buffering source {}", e.getMessage(), e);
         }
+
+        return new Lexer(source, length);
     }
 
+    private void init() {
+        this.lines.window(buffer, 0, length);
+        this.window = new TokenSource(buffer, 0, lines);
+        this.position = -1;
+        this.currentChar = charAfterPosition();
+        this.position = 0;
+        this.peekedChar = charAfterPosition();
+    }
+
+    @Override
     public Token nextToken() {
+        TokenType type = scan();
+
+        return switch (type) {
+            case IDENT ->
+                    new Token(type, symbols.intern(buffer, tokenStart, tokenEnd), base + tokenStart, positions);
+            case INT, STRING, ILLEGAL ->
+                    new Token(type, window, tokenStart, tokenEnd);
+            default ->
+                    new Token(type, type.literal(), base + tokenStart, positions);
+        };
+    }
+
+    /**
+     * Scans the next token and leaves its text range in {@link #tokenStart}/{@link #tokenEnd}.
+     * Builds no objects, so callers that only need the type and the offsets pay nothing more.
+     */
+    TokenType scan() {
         skipWhitespace();
+        tokenStart = position;
 
-        Token token;
+        TokenType type;
 
         switch (currentChar) {
             case '{':
-                token = new Token(TokenType.LBRACE, "{");
+                type = TokenType.LBRACE;
                 break;
             case '}':
-                token = new Token(TokenType.RBRACE, "}");
+                type = TokenType.RBRACE;
                 break;
 
             case '[':
-                token = new Token(TokenType.LBRACKET, "[");
+                type = TokenType.LBRACKET;
                 break;
             case ']':
-                token = new Token(TokenType.RBRACKET, "]");
+                type = TokenType.RBRACKET;
                 break;
             case '(':
-                token = new Token(TokenType.LPAREN, "(");
+                type = TokenType.LPAREN;
                 break;
             case ')':
-                token = new Token(TokenType.RPAREN, ")");
+                type = TokenType.RPAREN;
                 break;
             case ';':
-                token = new Token(TokenType.SEMICOLON, ";");
+                type = TokenType.SEMICOLON;
+                break;
+            case ':':
+                type = TokenType.COLON;
                 break;
             case '<':
-                token = new Token(TokenType.LT, "<");
+                type = TokenType.LT;
                 break;
             case '>':
-                token = new Token(TokenType.GT, ">");
+                type = TokenType.GT;
                 break;
             case ',':
-                token = new Token(TokenType.COMMA, ",");
+                type = TokenType.COMMA;
                 break;
             case '\"':
-                var literal = readString();
-                token = new Token(TokenType.STRING, literal);
-
-                break;
+                readString();
+                readChar();
+                return TokenType.STRING;
             case '=':
                 if (peekedChar == '=') {
                     readChar();
-                    token = new Token(TokenType.EQ, "==");
+                    type = TokenType.EQ;
                     break;
                 }
-                token = new Token(TokenType.ASSIGN, "=");
+                type = TokenType.ASSIGN;
                 break;
             case '!':
                 if (peekedChar == '=') {
                     readChar();
-                    token = new Token(TokenType.NOT_EQ, "!=");
+                    type = TokenType.NOT_EQ;
                     break;
                 }
-                token = new Token(TokenType.BANG, "!");
+                type = TokenType.BANG;
                 break;
             case '-':
-                token = new Token(TokenType.MINUS, "-");
+                type = TokenType.MINUS;
                 break;
             case '+':
-                token = new Token(TokenType.PLUS, "+");
+                type = TokenType.PLUS;
                 break;
             case '*':
-                token = new Token(TokenType.ASTERISK, "*");
+                type = TokenType.ASTERISK;
                 break;
             case '/':
-                token = new Token(TokenType.SLASH, "/");
+                type = TokenType.SLASH;
                 break;
-            case -1:
-                return new Token(TokenType.EOF, "");
+            case EOF:
+                tokenEnd = position;
+                return TokenType.EOF;
             default:
                 if (isLetterOrUnderscore((char) currentChar)) {
-                    String identifier = readIdentifier();
-                    return lookupIdentifier(identifier);
+                    return readIdentifier();
                 } else if (Character.isDigit(currentChar)) {
-                    String number = readNumber();
-                    return new Token(TokenType.INT, number);
+                    return readNumber();
                 }
 
-                token = new Token(TokenType.ILLEGAL, String.valueOf((char) currentChar));
+                type = TokenType.ILLEGAL;
                 break;
         }
 
         readChar();
-        return token;
+        tokenEnd = position;
+        return type;
+    }
+
+    int tokenStart() {
+        return tokenStart;
+    }
+
+    int tokenEnd() {
+        return tokenEnd;
+    }
+
+    public LineIndex lineIndex() {
+        return lines;
     }
 
     private void readChar() {
+        position++;
+        currentChar = peekedChar;
+        peekedChar = charAfterPosition();
+    }
+
+    private int charAfterPosition() {
+        while (position + 1 >= length) {
+            if (!fill()) {
+                return EOF;
+            }
+        }
+        return buffer[position + 1];
+    }
+
+    // Everything before the current token is already consumed, so a full buffer is compacted into a
+    // fresh array. The old one is left untouched because tokens handed out earlier still slice it.
+    private boolean fill() {
+        if (reader != null) {
+            return fillFromReader();
+        }
+        if (bytes != null) {
+            return fillFromBytes();
+        }
+        return false;
+    }
+
+    private boolean fillFromReader() {
+        int next;
         try {
-            currentChar = peekedChar;
-            peekedChar = reader.read();
+            next = reader.read();
         } catch (IOException e) {
             log.error("Exception while reading character {}", e.getMessage(), e);
+            return false;
         }
+        if (next == EOF) {
+            return false;
+        }
+
+        if (length == buffer.length) {
+            compact();
+        }
+        buffer[length++] = (char) next;
+        lines.filled(length);
+        return true;
     }
 
-    private String readIdentifier() {
-        StringBuilder sb = new StringBuilder();
+    private boolean fillFromBytes() {
+        if (!bytes.hasRemaining()) {
+            return false;
+        }
+        // Leave room for a surrogate pair coming out of the decoder.
+        if (buffer.length - length < 2) {
+            compact();
+        }
 
+        int filled = length;
+        int index = bytes.position();
+        int end = bytes.limit();
+        while (length < buffer.length && index < end && bytes.get(index) >= 0) {
+            buffer[length++] = (char) bytes.get(index++);
+        }
+        bytes.position(index);
+
+        if (length < buffer.length && index < end) {
+            CharBuffer window = CharBuffer.wrap(buffer, length, buffer.length - length);
+            decoder.decode(bytes, window, true);
+            length = window.position();
+        }
+        lines.filled(length);
+        return length > filled;
+    }
+
+    private void compact() {
+        int keep = Math.min(Math.max(Math.min(tokenStart, position), 0), length);
+        int live = length - keep;
+        char[] target = new char[Math.max(BLOCK_SIZE, live * 2)];
+
+        // Line starts in the dropped text can no longer be found later, so record them now.
+        lines.advance(base + keep);
+        System.arraycopy(buffer, keep, target, 0, live);
+        base += keep;
+        lines.window(target, base, live);
+        window = new TokenSource(target, base, lines);
+        buffer = target;
+        length = live;
+        position -= keep;
+        tokenStart -= keep;
+        tokenEnd -= keep;
+    }
+
+    private TokenType readIdentifier() {
         while (isLetterOrUnderscore((char) currentChar)) {
-            sb.append((char) currentChar);
             readChar();
         }
+        tokenEnd = position;
 
-        return sb.toString();
+        return lookupIdentifier(tokenStart, tokenEnd);
     }
 
-    private String readNumber() {
-        StringBuilder sb = new StringBuilder();
-
+    private TokenType readNumber() {
         while (Character.isDigit(currentChar)) {
-            sb.append((char) currentChar);
             readChar();
         }
+        tokenEnd = position;
 
-        return sb.toString();
+        return TokenType.INT;
     }
 
-    private String readString() {
-        StringBuilder sb = new StringBuilder();
+    // Leaves the lexer on the closing quote; the token covers only the text between the quotes.
+    private void readString() {
         readChar();
+        tokenStart = position;
 
-        while (!Character.toString(currentChar).equals("\"") && currentChar != -1) {
-            sb.append((char) currentChar);
+        while (currentChar != '"' && currentChar != EOF) {
             readChar();
         }
+        tokenEnd = position;
+    }
 
-        return sb.toString();
+    private TokenType lookupIdentifier(int start, int end) {
+        switch (buffer[start]) {
+            case 'f':
+                if (isKeyword("fn", start, end)) {
+                    return TokenType.FUNCTION;
+                }
+                if (isKeyword("false", start, end)) {
+                    return TokenType.FALSE;
+                }
+                break;
+            case 'l':
+                if (isKeyword("let", start, end)) {
+                    return TokenType.LET;
+                }
+                break;
+            case 'i':
+                if (isKeyword("if", start, end)) {
+                    return TokenType.IF;
+                }
+                break;
+            case 'e':
+                if (isKeyword("else", start, end)) {
+                    return TokenType.ELSE;
+                }
+                break;
+            case 'r':
+                if (isKeyword("return", start, end)) {
+                    return TokenType.RETURN;
+                }
+                break;
+            case 't':
+                if (isKeyword("true", start, end)) {
+                    return TokenType.TRUE;
+                }
+                break;
+            default:
+                break;
+        }
+
+        return TokenType.IDENT;
     }
 
-    private Token lookupIdentifier(String identifier) {
-        TokenType type = keywords.getOrDefault(identifier, TokenType.IDENT);
-        return new Token(type, identifier);
+    // The first character has already been matched by lookupIdentifier.
+    private boolean isKeyword(String keyword, int start, int end) {
+        if (keyword.length() != end - start) {
+            return false;
+        }
+        for (int i = 1; i < keyword.length(); i++) {
+            if (buffer[start + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static boolean isLetterOrUnderscore(char c) {
@@ -186,6 +449,9 @@ public class Lexer implements AutoCloseable {
 
     @Override
     public void close() {
+        if (reader == null) {
+            return;
+        }
         try {
             reader.close();
         } catch (IOException e) {
@@ -0,0 +1,102 @@
+package com.nullang.lexer;
+
+/**
+ * Interns identifier text so that every occurrence of a name maps to one canonical {@link String}.
+ * Lookups hash the characters in place, so a name that was already seen costs no allocation.
+ * Not thread-safe: share a table between lexers only when they run on the same thread.
+ */
+public final class SymbolTable {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private String[] symbols = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public String intern(char[] source, int start, int end) {
+        int hash = hash(source, start, end);
+        int mask = symbols.length - 1;
+
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String symbol = symbols[i];
+            if (symbol == null) {
+                return insert(i, hash, new String(source, start, end - start));
+            }
+            if (hashes[i] == hash && matches(symbol, source, start, end)) {
+                return symbol;
+            }
+        }
+    }
+
+    public String intern(String name) {
+        int hash = name.hashCode();
+        int mask = symbols.length - 1;
+
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String symbol = symbols[i];
+            if (symbol == null) {
+                return insert(i, hash, name);
+            }
+            if (hashes[i] == hash && symbol.equals(name)) {
+                return symbol;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private String insert(int slot, int hash, String symbol) {
+        symbols[slot] = symbol;
+        hashes[slot] = hash;
+        if (++size * 2 > symbols.length) {
+            grow();
+        }
+        return symbol;
+    }
+
+    private void grow() {
+        String[] oldSymbols = symbols;
+        int[] oldHashes = hashes;
+        symbols = new String[oldSymbols.length * 2];
+        hashes = new int[oldSymbols.length * 2];
+        int mask = symbols.length - 1;
+
+        for (int j = 0; j < oldSymbols.length; j++) {
+            if (oldSymbols[j] == null) {
+                continue;
+            }
+            int i = spread(oldHashes[j]) & mask;
+            while (symbols[i] != null) {
+                i = (i + 1) & mask;
+            }
+            symbols[i] = oldSymbols[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+
+    // Same function as String.hashCode, so a symbol's hash matches the one its String caches.
+    private static int hash(char[] source, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + source[i];
+        }
+        return h;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String symbol, char[] source, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != source[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package com.nullang.lexer;
+
+import com.nullang.token.LineIndex;
+import com.nullang.token.Token;
+import com.nullang.token.TokenSource;
+import com.nullang.token.TokenStream;
+import com.nullang.token.TokenType;
+
+import java.util.Arrays;
+
+/**
+ * A whole source lexed up front into parallel int arrays of type ordinal, start offset and length.
+ * Identifiers are interned while lexing and their canonical names kept alongside, so reading a
+ * token back is only array loads. It is immutable once built, so one instance can back any number
+ * of parses, on any number of threads, through {@link #cursor()}.
+ */
+public final class TokenArray {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final TokenSource window;
+    private final TokenSource positions;
+    private int[] types;
+    private int[] starts;
+    private int[] lengths;
+    private String[] names;
+    private int size;
+
+    private TokenArray(char[] source, int capacity) {
+        LineIndex lines = new LineIndex(source);
+        this.window = new TokenSource(source, 0, lines);
+        this.positions = TokenSource.positionsOnly(lines);
+        this.types = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.names = new String[capacity];
+    }
+
+    public static TokenArray tokenize(String source) {
+        return tokenize(source.toCharArray());
+    }
+
+    public static TokenArray tokenize(char[] source) {
+        SymbolTable symbols = new SymbolTable();
+        // Roughly one token per five characters of typical source.
+        TokenArray tokens = new TokenArray(source, Math.max(INITIAL_CAPACITY, source.length / 5));
+
+        try (Lexer lexer = new Lexer(source, source.length, symbols)) {
+            TokenType type;
+            do {
+                type = lexer.scan();
+                int start = lexer.tokenStart();
+                int end = lexer.tokenEnd();
+                String name = type == TokenType.IDENT ? symbols.intern(source, start, end) : null;
+                tokens.add(type, start, end, name);
+            } while (type != TokenType.EOF);
+        }
+
+        return tokens;
+    }
+
+    private void add(TokenType type, int start, int end, String name) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+        types[size] = type.ordinal();
+        starts[size] = start;
+        lengths[size] = end - start;
+        names[size] = name;
+        size++;
+    }
+
+    /** Number of tokens, including the trailing {@link TokenType#EOF}. */
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        return TokenType.ofOrdinal(types[index]);
+    }
+
+    public int start(int index) {
+        return starts[index];
+    }
+
+    public int length(int index) {
+        return lengths[index];
+    }
+
+    public Token token(int index) {
+        TokenType type = type(index);
+        int start = starts[index];
+        int end = start + lengths[index];
+
+        return switch (type) {
+            case IDENT ->
+                    new Token(type, names[index], start, positions);
+            case INT, STRING, ILLEGAL ->
+                    new Token(type, window, start, end);
+            default ->
+                    new Token(type, type.literal(), start, positions);
+        };
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Walks the array; running past the end keeps returning the final EOF token. */
+    public final class Cursor implements TokenStream {
+        private int index;
+
+        public TokenType peekType(int ahead) {
+            return type(Math.min(index + ahead, size - 1));
+        }
+
+        @Override
+        public Token nextToken() {
+            Token token = token(index);
+            if (index < size - 1) {
+                index++;
+            }
+            return token;
+        }
+    }
+}
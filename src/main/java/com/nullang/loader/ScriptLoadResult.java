@@ -0,0 +1,25 @@
+package com.nullang.loader;
+
+import com.nullang.ast.Program;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public record ScriptLoadResult(
+        Path path,
+        Program program,
+        Exception error,
+        Duration elapsed) {
+
+    public static ScriptLoadResult loaded(Path path, Program program, Duration elapsed) {
+        return new ScriptLoadResult(path, program, null, elapsed);
+    }
+
+    public static ScriptLoadResult failed(Path path, Exception error, Duration elapsed) {
+        return new ScriptLoadResult(path, null, error, elapsed);
+    }
+
+    public boolean isLoaded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.nullang.loader;
+
+import com.nullang.ast.Program;
+import com.nullang.lexer.Lexer;
+import com.nullang.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lexes and parses many script files at once, one task per file. Every file gets its own lexer and
+ * symbol table, so tasks share no mutable state and scale with the number of cores.
+ */
+public class ScriptLoader {
+    private static final Logger log = LoggerFactory.getLogger(ScriptLoader.class);
+
+    private final ExecutorService executor;
+
+    public ScriptLoader(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /** Loads every file on its own virtual thread. */
+    public static Map<Path, ScriptLoadResult> loadAll(Collection<Path> paths) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return new ScriptLoader(executor).load(paths);
+        }
+    }
+
+    /**
+     * Returns one result per file, in the order the paths were first given. Paths are made absolute
+     * and normalized first, so repeats and different spellings of one file are loaded once and the
+     * results are keyed by that normalized path.
+     */
+    public Map<Path, ScriptLoadResult> load(Collection<Path> paths) {
+        Set<Path> files = new LinkedHashSet<>();
+        for (Path path : paths) {
+            files.add(path.toAbsolutePath().normalize());
+        }
+
+        List<Future<ScriptLoadResult>> futures = new ArrayList<>(files.size());
+        for (Path path : files) {
+            futures.add(executor.submit(() -> loadOne(path)));
+        }
+
+        Map<Path, ScriptLoadResult> results = new LinkedHashMap<>();
+        for (Future<ScriptLoadResult> future : futures) {
+            ScriptLoadResult result = await(future);
+            results.put(result.path(), result);
+        }
+
+        return results;
+    }
+
+    public static ScriptLoadResult loadOne(Path path) {
+        long start = System.nanoTime();
+        try (Lexer lexer = Lexer.mapped(path);
+             Parser parser = new Parser(lexer)) {
+            Program program = parser.parseProgram();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.debug("Loaded {} in {} ms", path, elapsed.toMillis());
+
+            return ScriptLoadResult.loaded(path, program, elapsed);
+        } catch (Exception e) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.error("Failed to load {}: {}", path, e.getMessage());
+
+            return ScriptLoadResult.failed(path, e, elapsed);
+        }
+    }
+
+    private static ScriptLoadResult await(Future<ScriptLoadResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading scripts", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Script loading task failed", e.getCause());
+        }
+    }
+}
@@ -1,10 +1,84 @@
-
 package com.nullang.nullangobject;
 
+import java.util.AbstractList;
 import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable array backed by a {@link PersistentVector}, so {@link #push} returns a new array
+ * in O(log32 n) that shares almost all of its storage with this one. Integers are stored unboxed
+ * until the first element of another type is pushed. An array is a window of {@code size}
+ * elements starting at {@code offset}, which lets {@link #slice} share storage as well.
+ */
+public final class ArrayObject implements NullangObject {
+    private final PersistentVector vector;
+    private final int offset;
+    private final int size;
+
+    public ArrayObject(List<NullangObject> elements) {
+        this(PersistentVector.of(elements), 0, elements.size());
+    }
+
+    private ArrayObject(PersistentVector vector, int offset, int size) {
+        this.vector = vector;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Whether the elements are kept unboxed, i.e. every element is an integer. */
+    public boolean isIntArray() {
+        return vector.isInts();
+    }
+
+    /** The element at {@code index}, which must be in bounds. */
+    public NullangObject get(int index) {
+        return vector.get(offset + index);
+    }
+
+    /**
+     * A new array with {@code value} appended; this one is unchanged. A slice that ends before
+     * the end of its storage is copied first.
+     */
+    public ArrayObject push(NullangObject value) {
+        if (offset + size != vector.size()) {
+            return new ArrayObject(elements()).push(value);
+        }
+        return new ArrayObject(vector.push(value), offset, size + 1);
+    }
+
+    /**
+     * The elements from {@code from} up to but not including {@code to}, sharing this array's
+     * storage. Bounds are clamped to the array, so an out-of-range slice is empty rather than an error.
+     */
+    public ArrayObject slice(int from, int to) {
+        from = Math.clamp(from, 0, size);
+        to = Math.clamp(to, from, size);
+        return new ArrayObject(vector, offset + from, to - from);
+    }
+
+    /** A read-only view of the elements; integers are boxed as they are read. */
+    public List<NullangObject> elements() {
+        return new AbstractList<>() {
+            @Override
+            public NullangObject get(int index) {
+                return vector.get(offset + Objects.checkIndex(index, size));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
 
-public record ArrayObject(
-        List<NullangObject> elements) implements NullangObject{
     @Override
     public ObjectType type() {
         return ObjectType.ARRAY;
@@ -12,6 +86,21 @@ public record ArrayObject(
 
     @Override
     public String inspect() {
-        return elements.toString();
+        return elements().toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ArrayObject other && elements().equals(other.elements());
+    }
+
+    @Override
+    public int hashCode() {
+        return elements().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayObject[elements=" + elements() + "]";
     }
 }
@@ -2,6 +2,9 @@
 package com.nullang.nullangobject;
 
 public record BooleanObject(boolean value) implements NullangObject{
+    public static final BooleanObject TRUE = new BooleanObject(true);
+    public static final BooleanObject FALSE = new BooleanObject(false);
+
     @Override
     public ObjectType type() {
         return ObjectType.BOOLEAN;
@@ -1,7 +1,36 @@
 package com.nullang.nullangobject;
 
+import com.nullang.token.LineIndex;
+import com.nullang.token.Token;
+
 public record ErrorObject(
-        String message) implements NullangObject {
+        String message,
+        int offset,
+        LineIndex lines) implements NullangObject {
+
+    public ErrorObject(String message) {
+        this(message, -1, null);
+    }
+
+    public ErrorObject(String message, Token token) {
+        this(message, token.offset(), token.lines());
+    }
+
+    public boolean hasPosition() {
+        return offset >= 0 && lines != null;
+    }
+
+    public int line() {
+        return hasPosition() ? lines.line(offset) : -1;
+    }
+
+    public int column() {
+        return hasPosition() ? lines.column(offset) : -1;
+    }
+
+    public String location() {
+        return hasPosition() ? line() + ":" + column() : "unknown";
+    }
 
     @Override
     public ObjectType type() {
@@ -0,0 +1,109 @@
+package com.nullang.nullangobject;
+
+import java.util.List;
+
+/**
+ * An immutable map from integer, string or boolean keys to values. Entries are kept in insertion
+ * order with each key's hash computed once; an open-addressing table of entry indices, at most
+ * half full and probed linearly, finds them. A lookup compares stored hashes first and calls
+ * {@code equals} only on a match.
+ */
+public final class HashObject implements NullangObject {
+    private final NullangObject[] keys;
+    private final NullangObject[] values;
+    private final int[] hashes;
+    /** Entry index plus one per slot, zero for an empty slot. */
+    private final int[] table;
+    private int size;
+
+    /** Later duplicates of a key replace its value. Every key must be {@link #isHashable hashable}. */
+    public HashObject(List<NullangObject> keys, List<NullangObject> values) {
+        int count = keys.size();
+        this.keys = new NullangObject[count];
+        this.values = new NullangObject[count];
+        this.hashes = new int[count];
+        this.table = new int[tableSize(count)];
+        for (int i = 0; i < count; i++) {
+            put(keys.get(i), values.get(i));
+        }
+    }
+
+    public static boolean isHashable(NullangObject key) {
+        return key instanceof IntegerObject || key instanceof StringObject || key instanceof BooleanObject;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The value for {@code key}, or null if there is none or the key is not hashable. */
+    public NullangObject get(NullangObject key) {
+        if (!isHashable(key)) {
+            return null;
+        }
+        int hash = hash(key);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == hash && keys[entry].equals(key)) {
+                return values[entry];
+            }
+        }
+        return null;
+    }
+
+    private void put(NullangObject key, NullangObject value) {
+        if (!isHashable(key)) {
+            throw new IllegalArgumentException("unusable as hash key: " + key.type());
+        }
+        int hash = hash(key);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == hash && keys[entry].equals(key)) {
+                values[entry] = value;
+                return;
+            }
+        }
+        keys[size] = key;
+        values[size] = value;
+        hashes[size] = hash;
+        table[slot] = ++size;
+    }
+
+    private static int tableSize(int count) {
+        int size = 8;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private static int hash(NullangObject key) {
+        int h = switch (key) {
+            case IntegerObject integer -> integer.value() * 0x9E3779B9;
+            case StringObject string -> string.value().hashCode();
+            case BooleanObject bool -> bool.value() ? 1231 : 1237;
+            default -> throw new IllegalArgumentException("unusable as hash key: " + key.type());
+        };
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public ObjectType type() {
+        return ObjectType.HASH;
+    }
+
+    @Override
+    public String inspect() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(keys[i].inspect()).append(": ").append(values[i].inspect());
+        }
+        return builder.append("}").toString();
+    }
+}
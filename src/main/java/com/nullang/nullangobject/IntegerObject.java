@@ -1,7 +1,29 @@
-
 package com.nullang.nullangobject;
 
 public record IntegerObject(int value) implements NullangObject {
+    /** Raises the top of the shared instance range, which always starts at -128. */
+    public static final String CACHE_HIGH_PROPERTY = "nullang.integerCache.high";
+
+    private static final int CACHE_LOW = -128;
+    private static final IntegerObject[] CACHE = createCache(Math.max(127, Integer.getInteger(CACHE_HIGH_PROPERTY, 1023)));
+
+    /** A shared instance for values in the cached range, a new one otherwise. */
+    public static IntegerObject valueOf(int value) {
+        int index = value - CACHE_LOW;
+        if (index >= 0 && index < CACHE.length) {
+            return CACHE[index];
+        }
+        return new IntegerObject(value);
+    }
+
+    private static IntegerObject[] createCache(int high) {
+        var cache = new IntegerObject[high - CACHE_LOW + 1];
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new IntegerObject(i + CACHE_LOW);
+        }
+        return cache;
+    }
+
     @Override
     public ObjectType type() {
         return ObjectType.INTEGER;
@@ -2,6 +2,8 @@
 package com.nullang.nullangobject;
 
 public class NullObject implements NullangObject{
+    public static final NullObject NULL = new NullObject();
+
     @Override
     public ObjectType type() {
         return ObjectType.NULL;
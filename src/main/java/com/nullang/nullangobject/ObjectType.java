@@ -6,8 +6,10 @@ public enum ObjectType {
     BOOLEAN,
     NULL,
     RETURN_VALUE,
+    TAIL_CALL,
     ERROR,
     FUNCTION,
     BUILTIN,
-    ARRAY
+    ARRAY,
+    HASH
 }
@@ -0,0 +1,171 @@
+package com.nullang.nullangobject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable vector: a 32-way trie of full leaves plus a tail leaf of up to 32 elements.
+ * {@code push} copies the tail, or one path of the trie when the tail is full, so old and new
+ * vectors share everything else. Leaves are {@code int[]} while every element is an integer and
+ * {@code NullangObject[]} after that; all leaves of one vector have the same kind as its tail.
+ */
+final class PersistentVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+    static final PersistentVector EMPTY = new PersistentVector(0, BITS, EMPTY_NODE, new int[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    static PersistentVector of(List<NullangObject> elements) {
+        boolean ints = true;
+        for (NullangObject element : elements) {
+            if (!(element instanceof IntegerObject)) {
+                ints = false;
+                break;
+            }
+        }
+
+        var vector = ints ? EMPTY : new PersistentVector(0, BITS, EMPTY_NODE, new NullangObject[0]);
+        int tailStart = tailOffset(elements.size());
+        for (int start = 0; start < tailStart; start += WIDTH) {
+            vector = vector.withLeaf(start, leaf(elements, start, WIDTH, ints), start + WIDTH, vector.tail);
+        }
+        var tail = leaf(elements, tailStart, elements.size() - tailStart, ints);
+        return new PersistentVector(elements.size(), vector.shift, vector.root, tail);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isInts() {
+        return tail instanceof int[];
+    }
+
+    NullangObject get(int index) {
+        var leaf = leafFor(index);
+        return leaf instanceof int[] ints
+                ? IntegerObject.valueOf(ints[index & MASK])
+                : ((NullangObject[]) leaf)[index & MASK];
+    }
+
+    PersistentVector push(NullangObject value) {
+        if (tail instanceof int[] && !(value instanceof IntegerObject)) {
+            return generalize().push(value);
+        }
+
+        int tailSize = size - tailOffset(size);
+        if (tailSize < WIDTH) {
+            return new PersistentVector(size + 1, shift, root, append(tail, tailSize, value));
+        }
+        var newTail = append(tail instanceof int[] ? new int[0] : new NullangObject[0], 0, value);
+        return withLeaf(size - WIDTH, tail, size + 1, newTail);
+    }
+
+    /** Adds {@code leaf} to the trie after its first {@code treeSize} elements. */
+    private PersistentVector withLeaf(int treeSize, Object leaf, int newSize, Object newTail) {
+        if ((treeSize >>> BITS) == 1 << shift) {
+            var newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, leaf);
+            return new PersistentVector(newSize, shift + BITS, newRoot, newTail);
+        }
+        return new PersistentVector(newSize, shift, pushLeaf(shift, root, treeSize, leaf), newTail);
+    }
+
+    private static Object[] pushLeaf(int level, Object[] parent, int treeSize, Object leaf) {
+        int index = (treeSize >>> level) & MASK;
+        var node = parent.clone();
+        if (level == BITS) {
+            node[index] = leaf;
+        } else {
+            var child = (Object[]) parent[index];
+            node[index] = child != null ? pushLeaf(level - BITS, child, treeSize, leaf) : newPath(level - BITS, leaf);
+        }
+        return node;
+    }
+
+    private static Object newPath(int level, Object leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        var node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    private Object leafFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Object node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = ((Object[]) node)[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /** The same vector with boxed leaves, for the first element that is not an integer. */
+    private PersistentVector generalize() {
+        return new PersistentVector(size, shift, (Object[]) boxed(root, shift), boxed(tail, 0));
+    }
+
+    private static Object boxed(Object node, int level) {
+        if (node == null) {
+            return null;
+        }
+        if (level == 0) {
+            var ints = (int[]) node;
+            var objects = new NullangObject[ints.length];
+            for (int i = 0; i < ints.length; i++) {
+                objects[i] = IntegerObject.valueOf(ints[i]);
+            }
+            return objects;
+        }
+        var children = (Object[]) node;
+        var copy = new Object[WIDTH];
+        for (int i = 0; i < WIDTH; i++) {
+            copy[i] = boxed(children[i], level - BITS);
+        }
+        return copy;
+    }
+
+    private static Object append(Object leaf, int length, NullangObject value) {
+        if (leaf instanceof int[] ints) {
+            var grown = Arrays.copyOf(ints, length + 1);
+            grown[length] = ((IntegerObject) value).value();
+            return grown;
+        }
+        var grown = Arrays.copyOf((NullangObject[]) leaf, length + 1);
+        grown[length] = value;
+        return grown;
+    }
+
+    private static Object leaf(List<NullangObject> elements, int start, int length, boolean ints) {
+        if (ints) {
+            var leaf = new int[length];
+            for (int i = 0; i < length; i++) {
+                leaf[i] = ((IntegerObject) elements.get(start + i)).value();
+            }
+            return leaf;
+        }
+        return elements.subList(start, start + length).toArray(new NullangObject[0]);
+    }
+
+    private static int tailOffset(int size) {
+        return size == 0 ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+}
@@ -1,7 +1,80 @@
-
 package com.nullang.nullangobject;
 
-public record StringObject(String value) implements NullangObject{
+import java.util.ArrayDeque;
+
+/**
+ * A string that is either flat or a rope: the concatenation of two other strings, joined only
+ * when {@link #value} first needs the characters. Building a string by repeated {@code +} is then
+ * linear instead of copying the accumulated prefix every time. {@link #length} never flattens.
+ */
+public final class StringObject implements NullangObject {
+    /** Results up to this length are copied at once, since a rope node would cost more than the copy. */
+    private static final int FLAT_CONCAT_LIMIT = 64;
+
+    private final int length;
+    /** Null until a rope is flattened. Volatile so a string shared between threads is flattened safely. */
+    private volatile String value;
+    /** The halves of a rope. They are kept after flattening, so another thread's walk never reads them as null. */
+    private final StringObject left;
+    private final StringObject right;
+
+    public StringObject(String value) {
+        this.value = value;
+        this.length = value.length();
+        this.left = null;
+        this.right = null;
+    }
+
+    private StringObject(StringObject left, StringObject right) {
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+    }
+
+    /** This string followed by {@code other}, sharing both instead of copying them. */
+    public StringObject concat(StringObject other) {
+        if (other.length == 0) {
+            return this;
+        } else if (length == 0) {
+            return other;
+        } else if (length + other.length <= FLAT_CONCAT_LIMIT) {
+            return new StringObject(value() + other.value());
+        }
+        return new StringObject(this, other);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /** The characters as a {@link String}, joining a rope once and keeping the result. */
+    public String value() {
+        String flat = value;
+        if (flat == null) {
+            flat = flatten();
+            value = flat;
+        }
+        return flat;
+    }
+
+    /** Walks the rope with an explicit stack, since ropes built in a loop are as deep as the loop is long. */
+    private String flatten() {
+        var builder = new StringBuilder(length);
+        var pending = new ArrayDeque<StringObject>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            String flat = node.value;
+            if (flat != null) {
+                builder.append(flat);
+            } else {
+                pending.push(node.right);
+                pending.push(node.left);
+            }
+        }
+        return builder.toString();
+    }
+
     @Override
     public ObjectType type() {
         return ObjectType.STRING;
@@ -9,6 +82,21 @@ public record StringObject(String value) implements NullangObject{
 
     @Override
     public String inspect() {
-        return value;
+        return value();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof StringObject other && length == other.length && value().equals(other.value());
+    }
+
+    @Override
+    public int hashCode() {
+        return value().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "StringObject[value=" + value() + "]";
     }
 }
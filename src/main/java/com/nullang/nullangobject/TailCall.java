@@ -0,0 +1,25 @@
+package com.nullang.nullangobject;
+
+import com.nullang.ast.expression.CallExpression;
+
+import java.util.List;
+
+/**
+ * A call in tail position, handed back to the caller's trampoline instead of being made, so
+ * recursion through tail calls runs in constant Java stack. Never visible to scripts.
+ */
+public record TailCall(
+        CallExpression call,
+        FunctionObject function,
+        List<NullangObject> arguments) implements NullangObject {
+
+    @Override
+    public ObjectType type() {
+        return ObjectType.TAIL_CALL;
+    }
+
+    @Override
+    public String inspect() {
+        return call.toString();
+    }
+}
@@ -6,68 +6,58 @@ import com.nullang.ast.expression.BooleanIdentifier;
 import com.nullang.ast.expression.CallExpression;
 import com.nullang.ast.expression.Expression;
 import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.HashExpression;
 import com.nullang.ast.expression.IfExpression;
 import com.nullang.ast.expression.IndexExpression;
 import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.Operator;
 import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
 import com.nullang.ast.statement.*;
-import com.nullang.lexer.Lexer;
 import com.nullang.parser.errors.ParserException;
 import com.nullang.token.Token;
+import com.nullang.token.TokenStream;
 import com.nullang.token.TokenType;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 public class Parser implements AutoCloseable {
-    private final Lexer lexer;
+    private final TokenStream tokens;
     private Token curToken;
     private Token peekToken;
-    private final Map<TokenType, Supplier<Expression>> prefixParseFns = Map.ofEntries(
-            Map.entry(TokenType.STRING, this::parseStringIdentifier),
-            Map.entry(TokenType.IDENT, this::parseIdentifier),
-            Map.entry(TokenType.INT, this::parseInteger),
-            Map.entry(TokenType.BANG, this::parsePrefixExpression),
-            Map.entry(TokenType.MINUS, this::parsePrefixExpression),
-            Map.entry(TokenType.TRUE, this::parseBoolean),
-            Map.entry(TokenType.FALSE, this::parseBoolean),
-            Map.entry(TokenType.LPAREN, this::parseGroupedExpression),
-            Map.entry(TokenType.IF, this::parseIfExpression),
-            Map.entry(TokenType.FUNCTION, this::parseFnExpression),
-            Map.entry(TokenType.LBRACKET, this::parseArray)
-    );
-
-    private final Map<TokenType, Function<Expression, Expression>> infixParseFns = Map.ofEntries(
-            Map.entry(TokenType.PLUS, this::parseInfixExpression),
-            Map.entry(TokenType.MINUS, this::parseInfixExpression),
-            Map.entry(TokenType.SLASH, this::parseInfixExpression),
-            Map.entry(TokenType.ASTERISK, this::parseInfixExpression),
-            Map.entry(TokenType.EQ, this::parseInfixExpression),
-            Map.entry(TokenType.NOT_EQ, this::parseInfixExpression),
-            Map.entry(TokenType.LT, this::parseInfixExpression),
-            Map.entry(TokenType.GT, this::parseInfixExpression),
-            Map.entry(TokenType.LPAREN, this::parseCallExpression),
-            Map.entry(TokenType.LBRACKET, this::parseIndexExpression)
-    );
-
-    public Parser(Lexer lexer) {
-        this.lexer = lexer;
-
-        curToken = lexer.nextToken();
-        peekToken = lexer.nextToken();
+    public Parser(TokenStream tokens) {
+        this.tokens = tokens;
+
+        curToken = tokens.nextToken();
+        peekToken = tokens.nextToken();
     }
 
     public Program parseProgram() {
         Program program = new Program();
 
+        Optional<Statement> statement;
+        while ((statement = parseNextStatement()).isPresent()) {
+            program.statements.add(statement.get());
+        }
+
+        return program;
+    }
+
+    /**
+     * Parses a single top-level statement, or returns empty once the input is exhausted.
+     * Nothing is kept between calls, so a caller that drops each statement after using it
+     * never holds more than one statement's tree.
+     */
+    public Optional<Statement> parseNextStatement() {
         while (curToken.type() != TokenType.EOF) {
             Optional<Statement> statement = parseStatement();
-            statement.ifPresent(program.statements::add);
             nextToken();
+            if (statement.isPresent()) {
+                return statement;
+            }
         }
 
-        return program;
+        return Optional.empty();
     }
 
     private Optional<Statement> parseStatement() {
@@ -136,12 +126,28 @@ public class Parser implements AutoCloseable {
         return new CallExpression(curToken, function, parseArguments(TokenType.RPAREN));
     }
 
+    /** {@code left[index]}, or a slice {@code left[start:end]} where either bound may be left out. */
     private Expression parseIndexExpression(Expression left) {
-        var indexExpression = new IndexExpression(curToken, left);
+        var token = curToken;
         nextToken();
-        parseExpression(Precedences.LOWEST).ifPresent(indexExpression::setIndex);
+        Expression start = null;
+        if (curToken.type() != TokenType.COLON) {
+            start = parseExpression(Precedences.LOWEST).orElse(null);
+            if (!consumeIfPeek(TokenType.COLON)) {
+                var indexExpression = new IndexExpression(token, left);
+                indexExpression.setIndex(start);
+                consumeIfPeek(TokenType.RBRACKET);
+                return indexExpression;
+            }
+        }
+
+        Expression end = null;
+        if (peekToken.type() != TokenType.RBRACKET) {
+            nextToken();
+            end = parseExpression(Precedences.LOWEST).orElse(null);
+        }
         consumeIfPeek(TokenType.RBRACKET);
-        return indexExpression;
+        return new SliceExpression(token, left, start, end);
     }
 
     private List<Expression> parseArguments(TokenType end) {
@@ -184,6 +190,31 @@ public class Parser implements AutoCloseable {
         return new ArrayExpression(curToken, parseArguments(TokenType.RBRACKET));
     }
 
+    /** {@code {key: value, ...}}; a trailing comma is allowed. */
+    private Expression parseHash() {
+        Token token = curToken;
+        List<Expression> keys = new ArrayList<>();
+        List<Expression> values = new ArrayList<>();
+
+        while (peekToken.type() != TokenType.RBRACE) {
+            nextToken();
+            keys.add(parseExpression(Precedences.LOWEST)
+                    .orElseThrow(() -> new ParserException("Expected a hash key, got " + curToken)));
+            if (!consumeIfPeek(TokenType.COLON)) {
+                throw new ParserException("Expected ':' after hash key" + peekToken);
+            }
+            nextToken();
+            values.add(parseExpression(Precedences.LOWEST)
+                    .orElseThrow(() -> new ParserException("Expected a hash value, got " + curToken)));
+            if (!consumeIfPeek(TokenType.COMMA) && peekToken.type() != TokenType.RBRACE) {
+                throw new ParserException("Expected ',' or '}' in hash literal" + peekToken);
+            }
+        }
+        nextToken();
+
+        return new HashExpression(token, keys, values);
+    }
+
     private List<Identifier> parseParameters() {
         List<Identifier> parameters = new ArrayList<>();
 
@@ -269,7 +300,7 @@ public class Parser implements AutoCloseable {
     }
 
     private Expression parseInfixExpression(Expression left) {
-        InfixExpression ex = new InfixExpression(curToken, curToken.literal());
+        InfixExpression ex = new InfixExpression(curToken, Operator.of(curToken.type()));
         ex.setLeft(left);
 
         int p = curPrecedence();
@@ -281,7 +312,7 @@ public class Parser implements AutoCloseable {
     }
 
     private Expression parsePrefixExpression() {
-        PrefixExpression exp = new PrefixExpression(curToken, curToken.literal());
+        PrefixExpression exp = new PrefixExpression(curToken, Operator.of(curToken.type()));
 
         nextToken();
         parseExpression(Precedences.PREFIX).ifPresent(exp::setRight);
@@ -294,7 +325,7 @@ public class Parser implements AutoCloseable {
     }
 
     private Expression parseInteger() {
-        return new IntegerIdentifier(curToken, Integer.parseInt(curToken.literal()));
+        return new IntegerIdentifier(curToken, Integer.parseInt(curToken, 0, curToken.length(), 10));
     }
 
     private Expression parseIdentifier() {
@@ -306,22 +337,32 @@ public class Parser implements AutoCloseable {
     }
 
     private Optional<Expression> parseExpression(int lowest) {
-        Supplier<Expression> prefix = this.prefixParseFns.getOrDefault(curToken.type(), null);
-
-        if (prefix == null) {
-            return Optional.empty();
+        Expression left;
+        switch (curToken.type()) {
+            case STRING -> left = parseStringIdentifier();
+            case IDENT -> left = parseIdentifier();
+            case INT -> left = parseInteger();
+            case BANG, MINUS -> left = parsePrefixExpression();
+            case TRUE, FALSE -> left = parseBoolean();
+            case LPAREN -> left = parseGroupedExpression();
+            case IF -> left = parseIfExpression();
+            case FUNCTION -> left = parseFnExpression();
+            case LBRACKET -> left = parseArray();
+            case LBRACE -> left = parseHash();
+            default -> {
+                return Optional.empty();
+            }
         }
 
-        Expression left = prefix.get();
+        // Only infix operators have a precedence above LOWEST, so every token that gets past
+        // this check has an infix parse function below.
         while (peekToken.type() != TokenType.SEMICOLON && lowest < peekPrecedence()) {
-            Function<Expression, Expression> infix = this.infixParseFns.get(peekToken.type());
-
-            if (infix == null) {
-                return Optional.of(left);
-            }
-
             nextToken();
-            left = infix.apply(left);
+            left = switch (curToken.type()) {
+                case LPAREN -> parseCallExpression(left);
+                case LBRACKET -> parseIndexExpression(left);
+                default -> parseInfixExpression(left);
+            };
         }
 
         return Optional.of(left);
@@ -351,11 +392,11 @@ public class Parser implements AutoCloseable {
 
     private void nextToken() {
         curToken = peekToken;
-        peekToken = lexer.nextToken();
+        peekToken = tokens.nextToken();
     }
 
     @Override
     public void close() {
-        this.lexer.close();
+        this.tokens.close();
     }
 }
@@ -2,24 +2,26 @@ package com.nullang.parser;
 
 import com.nullang.token.TokenType;
 
-import java.util.Map;
+import java.util.Arrays;
 
 public class PrecedenceManager {
-    private static final Map<TokenType, Integer> PRECEDENCES =
-            Map.of(
-                    TokenType.EQ, Precedences.EQUALS,
-                    TokenType.NOT_EQ, Precedences.EQUALS,
-                    TokenType.LT, Precedences.LESS_GREATER,
-                    TokenType.GT, Precedences.LESS_GREATER,
-                    TokenType.PLUS, Precedences.SUM,
-                    TokenType.MINUS, Precedences.SUM,
-                    TokenType.SLASH, Precedences.PRODUCT,
-                    TokenType.LPAREN, Precedences.CALL,
-                    TokenType.LBRACKET, Precedences.INDEX,
-                    TokenType.ASTERISK, Precedences.PRODUCT
-            );
+    private static final int[] PRECEDENCES = new int[TokenType.values().length];
+
+    static {
+        Arrays.fill(PRECEDENCES, Precedences.LOWEST);
+        PRECEDENCES[TokenType.EQ.ordinal()] = Precedences.EQUALS;
+        PRECEDENCES[TokenType.NOT_EQ.ordinal()] = Precedences.EQUALS;
+        PRECEDENCES[TokenType.LT.ordinal()] = Precedences.LESS_GREATER;
+        PRECEDENCES[TokenType.GT.ordinal()] = Precedences.LESS_GREATER;
+        PRECEDENCES[TokenType.PLUS.ordinal()] = Precedences.SUM;
+        PRECEDENCES[TokenType.MINUS.ordinal()] = Precedences.SUM;
+        PRECEDENCES[TokenType.SLASH.ordinal()] = Precedences.PRODUCT;
+        PRECEDENCES[TokenType.ASTERISK.ordinal()] = Precedences.PRODUCT;
+        PRECEDENCES[TokenType.LPAREN.ordinal()] = Precedences.CALL;
+        PRECEDENCES[TokenType.LBRACKET.ordinal()] = Precedences.INDEX;
+    }
 
     public static int getPrecedence(TokenType type) {
-        return PRECEDENCES.getOrDefault(type, Precedences.LOWEST);
+        return PRECEDENCES[type.ordinal()];
     }
 }
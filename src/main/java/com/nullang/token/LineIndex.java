@@ -0,0 +1,77 @@
+package com.nullang.token;
+
+import java.util.Arrays;
+
+/**
+ * Maps absolute source offsets to 1-based line and column numbers.
+ * Line starts are only collected when a position is asked for, or when a streaming lexer
+ * is about to drop text it has already consumed.
+ */
+public final class LineIndex {
+    private int[] lineStarts = new int[64];
+    private int lineCount = 1;
+    private int indexedUpTo;
+    private char[] pending;
+    private int pendingBase;
+    private int pendingLength;
+
+    public LineIndex() {
+    }
+
+    public LineIndex(char[] source) {
+        window(source, 0, source.length);
+    }
+
+    /** A complete index, e.g. one stored alongside a serialized AST. */
+    public LineIndex(int[] lineStarts) {
+        this.lineStarts = lineStarts.length == 0 ? new int[] {0} : lineStarts.clone();
+        this.lineCount = this.lineStarts.length;
+        this.indexedUpTo = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Tells the index where the not-yet-indexed text lives; {@code chars[0]} is at offset {@code base}
+     * and only the first {@code length} chars hold source text.
+     */
+    public synchronized void window(char[] chars, int base, int length) {
+        this.pending = chars;
+        this.pendingBase = base;
+        this.pendingLength = length;
+    }
+
+    /** Reports that the first {@code length} chars of the current window now hold source text. */
+    public synchronized void filled(int length) {
+        this.pendingLength = length;
+    }
+
+    /** Records every line start up to {@code offset}, which must still be inside the current window. */
+    public synchronized void advance(int offset) {
+        for (int i = indexedUpTo; i < offset; i++) {
+            if (pending[i - pendingBase] == '\n') {
+                if (lineCount == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+                }
+                lineStarts[lineCount++] = i + 1;
+            }
+        }
+        indexedUpTo = Math.max(indexedUpTo, offset);
+    }
+
+    /** Indexes whatever is left of the current window and returns every line start found so far. */
+    public synchronized int[] lineStarts() {
+        if (pending != null) {
+            advance(pendingBase + pendingLength);
+        }
+        return Arrays.copyOf(lineStarts, lineCount);
+    }
+
+    public synchronized int line(int offset) {
+        advance(offset);
+        int index = Arrays.binarySearch(lineStarts, 0, lineCount, offset);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    public synchronized int column(int offset) {
+        return offset - lineStarts[line(offset) - 1] + 1;
+    }
+}
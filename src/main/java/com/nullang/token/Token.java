@@ -1,8 +1,135 @@
 package com.nullang.token;
 
-public record Token(TokenType type, String literal) {
+import java.util.Objects;
+
+/**
+ * A token whose text is either a fixed literal or a slice of the lexer's source buffer.
+ * Slices are turned into a {@link String} only when {@link #literal()} is first called.
+ * The position is not stored on its own: it is the start of the slice plus the base of the shared
+ * {@link TokenSource}, and it becomes a line and column through the source's {@link LineIndex}
+ * only when somebody asks. A token with a fixed literal keeps its offset in {@code start}.
+ */
+public final class Token implements CharSequence {
+    private final TokenType type;
+    private final TokenSource source;
+    private final int start;
+    private final int end;
+    private String literal;
+
+    public Token(TokenType type, String literal) {
+        this(type, literal, -1, null);
+    }
+
+    /** A token with fixed text at {@code offset}; {@code source} only supplies the line index. */
+    public Token(TokenType type, String literal, int offset, TokenSource source) {
+        this.type = type;
+        this.source = offset < 0 ? null : source;
+        this.start = Math.max(offset, 0);
+        this.end = this.start + literal.length();
+        this.literal = literal;
+    }
+
+    public Token(TokenType type, char[] chars, int start, int end) {
+        this(type, new TokenSource(chars, 0, null), start, end);
+    }
+
+    /** The chars from {@code start} to {@code end} of the source's buffer. */
+    public Token(TokenType type, TokenSource source, int start, int end) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    public String literal() {
+        if (literal == null) {
+            literal = new String(source.chars(), start, end - start);
+        }
+        return literal;
+    }
+
+    public int offset() {
+        return hasPosition() ? source.base() + start : -1;
+    }
+
+    public LineIndex lines() {
+        return source == null ? null : source.lines();
+    }
+
+    public boolean hasPosition() {
+        return source != null && source.lines() != null;
+    }
+
+    public int line() {
+        return hasPosition() ? source.lines().line(offset()) : -1;
+    }
+
+    public int column() {
+        return hasPosition() ? source.lines().column(offset()) : -1;
+    }
+
+    private boolean isSlice() {
+        return source != null && source.chars() != null;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (!isSlice()) {
+            return literal.charAt(index);
+        }
+        Objects.checkIndex(index, length());
+        return source.chars()[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        Objects.checkFromToIndex(from, to, length());
+        if (!isSlice()) {
+            return literal.subSequence(from, to);
+        }
+        return new Token(type, source, start + from, start + to);
+    }
+
+    public boolean textEquals(CharSequence other) {
+        int length = length();
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Token other)) {
+            return false;
+        }
+        return type == other.type && textEquals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + literal().hashCode();
+    }
+
     @Override
     public String toString() {
-        return literal;
+        return literal();
     }
 }
@@ -0,0 +1,13 @@
+package com.nullang.token;
+
+/**
+ * What every token cut from one buffer shares: the buffer, the absolute offset of its first char
+ * and the source's {@link LineIndex}. A lexer makes one per buffer, so a token only needs its own
+ * start and end to know both its text and its position. {@code chars} is null for a source that
+ * only gives positions to tokens with fixed text.
+ */
+public record TokenSource(char[] chars, int base, LineIndex lines) {
+    public static TokenSource positionsOnly(LineIndex lines) {
+        return new TokenSource(null, 0, lines);
+    }
+}
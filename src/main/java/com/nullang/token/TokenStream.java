@@ -0,0 +1,9 @@
+package com.nullang.token;
+
+public interface TokenStream extends AutoCloseable {
+    Token nextToken();
+
+    @Override
+    default void close() {
+    }
+}
@@ -2,49 +2,68 @@ package com.nullang.token;
 
 public enum TokenType {
     // Special tokens
-    ILLEGAL,
-    EOF,
+    ILLEGAL(null),
+    EOF(""),
 
     // Identifiers and Literals
-    IDENT,
-    INT,
-    TRUE,
-    FALSE,
-    STRING,
+    IDENT(null),
+    INT(null),
+    TRUE("true"),
+    FALSE("false"),
+    STRING(null),
 
     // Arithmetic Operators
-    PLUS,
-    MINUS,
-    ASTERISK,
-    SLASH,
+    PLUS("+"),
+    MINUS("-"),
+    ASTERISK("*"),
+    SLASH("/"),
 
     // Comparison Operator
-    LT,
-    GT,
-    EQ,
-    NOT_EQ,
+    LT("<"),
+    GT(">"),
+    EQ("=="),
+    NOT_EQ("!="),
 
     // Logical unary operators
-    ASSIGN,
-    BANG,
+    ASSIGN("="),
+    BANG("!"),
 
     // Delimiters
-    COMMA,
-    SEMICOLON,
+    COMMA(","),
+    SEMICOLON(";"),
 
     // Grouping symbols
-    LPAREN,
-    RPAREN,
-    LBRACE,
-    RBRACE,
+    LPAREN("("),
+    RPAREN(")"),
+    LBRACE("{"),
+    RBRACE("}"),
 
     // Keywords
-    FUNCTION,
-    LET,
-    IF,
-    ELSE,
-    RETURN,
-
-    LBRACKET,
-    RBRACKET,
+    FUNCTION("fn"),
+    LET("let"),
+    IF("if"),
+    ELSE("else"),
+    RETURN("return"),
+
+    LBRACKET("["),
+    RBRACKET("]"),
+    COLON(":"),
+    ;
+
+    private static final TokenType[] VALUES = values();
+
+    private final String literal;
+
+    TokenType(String literal) {
+        this.literal = literal;
+    }
+
+    /** The fixed text of this token type, or {@code null} when the text comes from the source. */
+    public String literal() {
+        return literal;
+    }
+
+    public static TokenType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
 }
@@ -0,0 +1,21 @@
+package com.nullang.vm;
+
+import com.nullang.compiler.CompiledFunction;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+
+/** A compiled function together with the scope it was created in, whose locals it can still read. */
+public record Closure(
+        CompiledFunction function,
+        Scope env) implements NullangObject {
+
+    @Override
+    public ObjectType type() {
+        return ObjectType.FUNCTION;
+    }
+
+    @Override
+    public String inspect() {
+        return function.inspect();
+    }
+}
@@ -0,0 +1,36 @@
+package com.nullang.vm;
+
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * One function activation. Locals live in its {@link Scope} rather than on the operand stack, so
+ * closures created in the frame share them and see later assignments, as they do under Eval.
+ * Only the VM's call chain refers to a frame; closures capture the scope, which is why a tail call
+ * can take the frame over with {@link #reenter} while keeping the old scope intact.
+ */
+final class Frame {
+    Closure closure;
+    byte[] code;
+    Scope scope;
+    NullangObject[] locals;
+    final Frame caller;
+    final int base;
+    final int callDepth;
+    int ip;
+
+    Frame(Closure closure, Frame caller, int base) {
+        this.caller = caller;
+        this.base = base;
+        this.callDepth = caller == null ? 0 : caller.callDepth + 1;
+        reenter(closure);
+    }
+
+    /** Starts {@code closure} in this frame with fresh locals, returning to the same caller. */
+    void reenter(Closure closure) {
+        this.closure = closure;
+        this.code = closure.function().instructions();
+        this.scope = new Scope(closure.function(), closure.env());
+        this.locals = scope.locals;
+        this.ip = 0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nullang.vm;
+
+import com.nullang.compiler.CompiledFunction;
+import com.nullang.nullangobject.NullangObject;
+
+/**
+ * The locals of one function activation and the scope its closure was created in. This is all a
+ * {@link Closure} keeps, so a closure that escapes holds on to its lexical chain, not to the calls
+ * that were running when it was made.
+ */
+final class Scope {
+    final CompiledFunction function;
+    final NullangObject[] locals;
+    final Scope outer;
+
+    Scope(CompiledFunction function, Scope outer) {
+        this.function = function;
+        this.locals = new NullangObject[function.numLocals()];
+        this.outer = outer;
+    }
+}
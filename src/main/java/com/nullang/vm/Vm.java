@@ -0,0 +1,438 @@
+package com.nullang.vm;
+
+import com.nullang.compiler.Bytecode;
+import com.nullang.compiler.CompiledFunction;
+import com.nullang.compiler.Instructions;
+import com.nullang.compiler.Opcode;
+import com.nullang.eval.Builtins;
+import com.nullang.nullangobject.ArrayObject;
+import com.nullang.nullangobject.BooleanObject;
+import com.nullang.nullangobject.BuiltinFunctionObject;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.HashObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.nullangobject.ObjectType;
+import com.nullang.nullangobject.ReturnValue;
+import com.nullang.nullangobject.StringObject;
+import com.nullang.token.Token;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs {@link Bytecode} on an operand stack with heap-allocated call frames, producing the same
+ * values and error messages as {@link com.nullang.eval.Eval}. Globals persist across {@link #run} calls.
+ */
+public class Vm {
+    public static final String MAX_FRAMES_PROPERTY = "nullang.vm.maxFrames";
+    public static final int DEFAULT_MAX_FRAMES = 100_000;
+
+    private static final NullangObject NULL = NullObject.NULL;
+    private static final NullangObject TRUE = BooleanObject.TRUE;
+    private static final NullangObject FALSE = BooleanObject.FALSE;
+
+    private final int maxFrames;
+
+    private NullangObject[] globals = new NullangObject[64];
+    private NullangObject[] stack = new NullangObject[256];
+    private NullangObject[] constants;
+    private String[] globalNames;
+
+    public Vm() {
+        this(Integer.getInteger(MAX_FRAMES_PROPERTY, DEFAULT_MAX_FRAMES));
+    }
+
+    /** Tail calls reuse their frame, so {@code maxFrames} only limits calls whose caller still has work to do. */
+    public Vm(int maxFrames) {
+        if (maxFrames < 1) {
+            throw new IllegalArgumentException("maxFrames must be positive, was " + maxFrames);
+        }
+        this.maxFrames = maxFrames;
+    }
+
+    /** Returns the value of the last statement run, a {@link ReturnValue} for a top-level return, or the first error. */
+    public NullangObject run(Bytecode bytecode) {
+        constants = bytecode.constants();
+        globalNames = bytecode.globalNames();
+        if (globals.length < globalNames.length) {
+            globals = Arrays.copyOf(globals, Math.max(globals.length * 2, globalNames.length));
+        }
+
+        CompiledFunction main = bytecode.main();
+        ensureStack(main.maxStack());
+        try {
+            return execute(new Frame(new Closure(main, null), null, 0));
+        } finally {
+            Arrays.fill(stack, null);
+        }
+    }
+
+    /** The stack and stack pointer live in locals here; {@link #stack} is reloaded after anything that may grow it. */
+    private NullangObject execute(Frame frame) {
+        NullangObject[] stack = this.stack;
+        NullangObject last = null;
+        byte[] code = frame.code;
+        int ip = 0;
+        int sp = 0;
+
+        while (true) {
+            if (ip >= code.length) {
+                return last;
+            }
+
+            int start = ip;
+            Opcode opcode = Opcode.ofCode(code[ip++]);
+            switch (opcode) {
+                case CONSTANT -> {
+                    stack[sp++] = constants[Instructions.readU16(code, ip)];
+                    ip += 2;
+                }
+                case POP -> last = stack[--sp];
+                case TRUE -> stack[sp++] = TRUE;
+                case FALSE -> stack[sp++] = FALSE;
+                case NULL -> stack[sp++] = NULL;
+                case ADD -> {
+                    if (stack[sp - 2] instanceof IntegerObject l && stack[sp - 1] instanceof IntegerObject r) {
+                        stack[sp - 2] = IntegerObject.valueOf(l.value() + r.value());
+                        sp--;
+                        continue;
+                    }
+                    NullangObject result = binary(opcode, stack[sp - 2], stack[sp - 1]);
+                    if (result instanceof ErrorObject error) {
+                        return error(frame, start, error);
+                    }
+                    stack[sp - 2] = result;
+                    sp--;
+                }
+                case SUB -> {
+                    if (stack[sp - 2] instanceof IntegerObject l && stack[sp - 1] instanceof IntegerObject r) {
+                        stack[sp - 2] = IntegerObject.valueOf(l.value() - r.value());
+                        sp--;
+                        continue;
+                    }
+                    NullangObject result = binary(opcode, stack[sp - 2], stack[sp - 1]);
+                    if (result instanceof ErrorObject error) {
+                        return error(frame, start, error);
+                    }
+                    stack[sp - 2] = result;
+                    sp--;
+                }
+                case LESS_THAN -> {
+                    if (stack[sp - 2] instanceof IntegerObject l && stack[sp - 1] instanceof IntegerObject r) {
+                        stack[sp - 2] = l.value() < r.value() ? TRUE : FALSE;
+                        sp--;
+                        continue;
+                    }
+                    NullangObject result = binary(opcode, stack[sp - 2], stack[sp - 1]);
+                    if (result instanceof ErrorObject error) {
+                        return error(frame, start, error);
+                    }
+                    stack[sp - 2] = result;
+                    sp--;
+                }
+                case MUL, DIV, EQUAL, NOT_EQUAL, GREATER_THAN -> {
+                    NullangObject result = binary(opcode, stack[sp - 2], stack[sp - 1]);
+                    if (result instanceof ErrorObject error) {
+                        return error(frame, start, error);
+                    }
+                    stack[sp - 2] = result;
+                    sp--;
+                }
+                case MINUS -> {
+                    if (!(stack[sp - 1] instanceof IntegerObject integer)) {
+                        return error(frame, start, "unknown operator: -" + stack[sp - 1].type());
+                    }
+                    stack[sp - 1] = IntegerObject.valueOf(-integer.value());
+                }
+                case BANG -> stack[sp - 1] = bang(stack[sp - 1]);
+                case JUMP -> ip = Instructions.readI32(code, ip);
+                case JUMP_NOT_TRUTHY -> {
+                    NullangObject condition = stack[--sp];
+                    if (condition != NULL && condition != FALSE) {
+                        ip += 4;
+                    } else {
+                        ip = Instructions.readI32(code, ip);
+                    }
+                }
+                case GET_GLOBAL -> {
+                    int index = Instructions.readU16(code, ip);
+                    ip += 2;
+                    NullangObject value = globals[index];
+                    if (value == null) {
+                        value = Builtins.lookup(globalNames[index]);
+                    }
+                    if (value == null) {
+                        return error(frame, start, "identifier not found: " + globalNames[index]);
+                    }
+                    stack[sp++] = value;
+                }
+                case SET_GLOBAL -> {
+                    last = stack[--sp];
+                    globals[Instructions.readU16(code, ip)] = last;
+                    ip += 2;
+                }
+                case GET_LOCAL -> {
+                    int slot = code[ip++] & 0xFF;
+                    NullangObject value = frame.locals[slot];
+                    if (value == null) {
+                        String name = frame.closure.function().slotNames()[slot];
+                        value = lookupByName(frame, name);
+                        if (value == null) {
+                            return error(frame, start, "identifier not found: " + name);
+                        }
+                    }
+                    stack[sp++] = value;
+                }
+                case SET_LOCAL -> {
+                    last = stack[--sp];
+                    frame.locals[code[ip++] & 0xFF] = last;
+                }
+                case GET_OUTER -> {
+                    int depth = code[ip++] & 0xFF;
+                    int slot = code[ip++] & 0xFF;
+                    Scope outer = frame.scope;
+                    for (int i = 0; i < depth; i++) {
+                        outer = outer.outer;
+                    }
+                    NullangObject value = outer.locals[slot];
+                    if (value == null) {
+                        String name = outer.function.slotNames()[slot];
+                        value = lookupByName(frame, name);
+                        if (value == null) {
+                            return error(frame, start, "identifier not found: " + name);
+                        }
+                    }
+                    stack[sp++] = value;
+                }
+                case GET_BUILTIN -> stack[sp++] = Builtins.get(code[ip++] & 0xFF);
+                case ARRAY -> {
+                    int count = Instructions.readU16(code, ip);
+                    ip += 2;
+                    List<NullangObject> elements = new ArrayList<>(count);
+                    for (int i = sp - count; i < sp; i++) {
+                        elements.add(stack[i]);
+                    }
+                    sp -= count;
+                    stack[sp++] = new ArrayObject(elements);
+                }
+                case HASH -> {
+                    int count = Instructions.readU16(code, ip);
+                    ip += 2;
+                    List<NullangObject> keys = new ArrayList<>(count);
+                    List<NullangObject> values = new ArrayList<>(count);
+                    for (int i = sp - 2 * count; i < sp; i += 2) {
+                        if (!HashObject.isHashable(stack[i])) {
+                            return error(frame, start, "unusable as hash key: " + stack[i].type());
+                        }
+                        keys.add(stack[i]);
+                        values.add(stack[i + 1]);
+                    }
+                    sp -= 2 * count;
+                    stack[sp++] = new HashObject(keys, values);
+                }
+                case INDEX -> {
+                    NullangObject index = stack[--sp];
+                    NullangObject left = stack[--sp];
+                    if (left instanceof ArrayObject array && index instanceof IntegerObject integer) {
+                        int i = integer.value();
+                        stack[sp++] = i < 0 || i >= array.size() ? NULL : array.get(i);
+                    } else if (left instanceof HashObject hash) {
+                        if (!HashObject.isHashable(index)) {
+                            return error(frame, start, "unusable as hash key: " + index.type());
+                        }
+                        NullangObject value = hash.get(index);
+                        stack[sp++] = value != null ? value : NULL;
+                    } else {
+                        return error(frame, start, "index operator not supported: " + left.type() + " " + index.type());
+                    }
+                }
+                case SLICE -> {
+                    int bounds = code[ip++] & 0xFF;
+                    NullangObject end = (bounds & Opcode.SLICE_END) != 0 ? stack[--sp] : null;
+                    NullangObject begin = (bounds & Opcode.SLICE_START) != 0 ? stack[--sp] : null;
+                    NullangObject left = stack[--sp];
+                    if (!(left instanceof ArrayObject array)) {
+                        return error(frame, start, "slice operator not supported: " + left.type());
+                    }
+                    if (begin != null && !(begin instanceof IntegerObject)) {
+                        return error(frame, start, "slice bound must be INTEGER, got " + begin.type());
+                    }
+                    if (end != null && !(end instanceof IntegerObject)) {
+                        return error(frame, start, "slice bound must be INTEGER, got " + end.type());
+                    }
+                    int from = begin == null ? 0 : ((IntegerObject) begin).value();
+                    int to = end == null ? array.size() : ((IntegerObject) end).value();
+                    stack[sp++] = array.slice(from, to);
+                }
+                case CLOSURE -> {
+                    stack[sp++] = new Closure((CompiledFunction) constants[Instructions.readU16(code, ip)], frame.scope);
+                    ip += 2;
+                }
+                case CALL, TAIL_CALL -> {
+                    int argc = code[ip++] & 0xFF;
+                    NullangObject callee = stack[sp - 1 - argc];
+                    if (callee instanceof Closure closure) {
+                        int[] parameterSlots = closure.function().parameterSlots();
+                        if (argc < parameterSlots.length) {
+                            return error(frame, start, "wrong number of arguments: want=" + parameterSlots.length + ", got=" + argc);
+                        }
+                        if (opcode == Opcode.TAIL_CALL) {
+                            int args = sp - argc;
+                            frame.reenter(closure);
+                            for (int i = 0; i < parameterSlots.length; i++) {
+                                frame.locals[parameterSlots[i]] = stack[args + i];
+                            }
+                            sp = frame.base;
+                            if (sp + closure.function().maxStack() > stack.length) {
+                                ensureStack(sp + closure.function().maxStack());
+                                stack = this.stack;
+                            }
+
+                            code = frame.code;
+                            ip = 0;
+                            continue;
+                        }
+                        if (frame.callDepth >= maxFrames) {
+                            return error(frame, start, "stack overflow: more than " + maxFrames + " nested calls");
+                        }
+
+                        int base = sp - 1 - argc;
+                        Frame calleeFrame = new Frame(closure, frame, base);
+                        for (int i = 0; i < parameterSlots.length; i++) {
+                            calleeFrame.locals[parameterSlots[i]] = stack[base + 1 + i];
+                        }
+                        sp = base;
+                        if (sp + closure.function().maxStack() > stack.length) {
+                            ensureStack(sp + closure.function().maxStack());
+                            stack = this.stack;
+                        }
+
+                        frame.ip = ip;
+                        frame = calleeFrame;
+                        code = frame.code;
+                        ip = 0;
+                    } else if (callee instanceof BuiltinFunctionObject builtin) {
+                        List<NullangObject> args = new ArrayList<>(Arrays.asList(stack).subList(sp - argc, sp));
+                        sp -= argc + 1;
+                        NullangObject result = builtin.call(args);
+                        if (result instanceof ErrorObject error) {
+                            return error.hasPosition() ? error : error(frame, start, error);
+                        }
+                        stack[sp++] = result;
+                    } else {
+                        return error(frame, start, "not a function: " + callee.type());
+                    }
+                }
+                case RETURN_VALUE -> {
+                    NullangObject result = stack[--sp];
+                    if (frame.caller == null) {
+                        return new ReturnValue(result);
+                    }
+                    sp = frame.base;
+                    frame = frame.caller;
+                    code = frame.code;
+                    ip = frame.ip;
+                    stack[sp++] = result;
+                }
+            }
+        }
+    }
+
+    private NullangObject binary(Opcode opcode, NullangObject left, NullangObject right) {
+        if (left instanceof IntegerObject l && right instanceof IntegerObject r) {
+            int a = l.value();
+            int b = r.value();
+            return switch (opcode) {
+                case ADD -> IntegerObject.valueOf(a + b);
+                case SUB -> IntegerObject.valueOf(a - b);
+                case MUL -> IntegerObject.valueOf(a * b);
+                case DIV -> IntegerObject.valueOf(a / b);
+                case LESS_THAN -> bool(a < b);
+                case GREATER_THAN -> bool(a > b);
+                case EQUAL -> bool(a == b);
+                case NOT_EQUAL -> bool(a != b);
+                default -> throw new IllegalStateException("Not a binary opcode: " + opcode);
+            };
+        }
+
+        if (opcode == Opcode.EQUAL) {
+            return bool(left == right);
+        } else if (opcode == Opcode.NOT_EQUAL) {
+            return bool(left != right);
+        }
+
+        String operator = operator(opcode);
+        if (left.type() == ObjectType.STRING && right.type() == ObjectType.STRING) {
+            if (opcode == Opcode.ADD) {
+                return ((StringObject) left).concat((StringObject) right);
+            }
+            return new ErrorObject("unknown operator: " + left.type() + " " + operator + " " + right.type());
+        } else if (left.type() != right.type()) {
+            return new ErrorObject("type mismatch: " + left.type() + " " + operator + " " + right.type());
+        }
+        return new ErrorObject("unknown operator: " + left.type() + " " + operator + " " + right.type());
+    }
+
+    private static String operator(Opcode opcode) {
+        return switch (opcode) {
+            case ADD -> "+";
+            case SUB -> "-";
+            case MUL -> "*";
+            case DIV -> "/";
+            case LESS_THAN -> "<";
+            case GREATER_THAN -> ">";
+            case EQUAL -> "==";
+            case NOT_EQUAL -> "!=";
+            default -> throw new IllegalStateException("Not a binary opcode: " + opcode);
+        };
+    }
+
+    private static NullangObject bang(NullangObject right) {
+        return switch (right) {
+            case BooleanObject b when b.value() -> FALSE;
+            case BooleanObject b -> TRUE;
+            case NullObject n -> TRUE;
+            default -> FALSE;
+        };
+    }
+
+    private static NullangObject bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /** The slow path for a local whose let has not run yet: resolve the name the way Eval's scope chain would. */
+    private NullangObject lookupByName(Frame frame, String name) {
+        for (Scope scope = frame.scope; scope != null; scope = scope.outer) {
+            String[] names = scope.function.slotNames();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name) && scope.locals[i] != null) {
+                    return scope.locals[i];
+                }
+            }
+        }
+        for (int i = 0; i < globalNames.length; i++) {
+            if (globalNames[i].equals(name) && globals[i] != null) {
+                return globals[i];
+            }
+        }
+        return Builtins.lookup(name);
+    }
+
+    private ErrorObject error(Frame frame, int ip, ErrorObject error) {
+        return error(frame, ip, error.message());
+    }
+
+    private ErrorObject error(Frame frame, int ip, String message) {
+        Token token = frame.closure.function().tokenAt(ip);
+        return token != null ? new ErrorObject(message, token) : new ErrorObject(message);
+    }
+
+    private void ensureStack(int size) {
+        if (size > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(stack.length * 2, size));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.nullang.cache;
+
+import com.nullang.ast.Program;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AstCacheTest {
+    @TempDir
+    Path tempDir;
+
+    static Stream<Arguments> programs() {
+        return Stream.of(
+                Arguments.of("let x = 5; let y = x * 2 + 1; y;"),
+                Arguments.of("-5 + !true == !!false;"),
+                Arguments.of("if (1 < 2) { 10 } else { 20 };"),
+                Arguments.of("if (1 > 2) { 10 };"),
+                Arguments.of("let add = fn(a, b) { return a + b; }; add(1, add(2, 3));"),
+                Arguments.of("let arr = [1, 2 * 2, \"three\"]; arr[1];"),
+                Arguments.of("let arr = [1, 2, 3]; [arr[1:2], arr[:1], arr[1:], arr[:]];"),
+                Arguments.of("let h = {\"a\": 1, 2: [3], true: {}}; h[\"a\"];"),
+                Arguments.of("let f = fn() { 1 }; f();"),
+                Arguments.of("len(\"héllo wörld\");"),
+                Arguments.of("let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) }; fib(10);"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("programs")
+    void testRoundTrip(String input) throws IOException {
+        Program parsed = parse(input);
+        byte[] data = AstWriter.write(parsed, null, hash(input));
+
+        Program loaded = new AstReader(ByteBuffer.wrap(data)).readProgram();
+
+        assertThat(loaded.toString()).isEqualTo(parsed.toString());
+        assertThat(new Eval().evaluate(loaded, new Env()).inspect())
+                .isEqualTo(new Eval().evaluate(parsed, new Env()).inspect());
+    }
+
+    @Test
+    void testIdentifierLiteralsAreShared() throws IOException {
+        Program loaded = new AstReader(ByteBuffer.wrap(AstWriter.write(parse("let x = 1; x;"), null, hash("")))).readProgram();
+
+        String declared = ((LetStatement) loaded.statements.get(0)).getName().getValue();
+        String used = ((ExpressionStatement) loaded.statements.get(1)).expression().getTokenLiteral();
+        assertThat(used).isSameAs(declared);
+    }
+
+    @Test
+    void testCacheIsWrittenAndReused() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("script.null"), "let x = 20; x + 1;");
+        Path cacheFile = AstCache.cacheFileFor(script);
+
+        Program first = AstCache.load(script);
+        assertThat(Files.exists(cacheFile)).isTrue();
+        byte[] written = Files.readAllBytes(cacheFile);
+
+        Program second = AstCache.load(script);
+        assertThat(second.toString()).isEqualTo(first.toString());
+        assertThat(Files.readAllBytes(cacheFile)).isEqualTo(written);
+        assertThat(new Eval().evaluate(second, new Env()).inspect()).isEqualTo("21");
+    }
+
+    @Test
+    void testCacheIsRebuiltWhenSourceChanges() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("script.null"), "1 + 1;");
+        AstCache.load(script);
+
+        Files.writeString(script, "2 * 3;");
+        Program program = AstCache.load(script);
+
+        assertThat(new Eval().evaluate(program, new Env()).inspect()).isEqualTo("6");
+        Program cached = new AstReader(ByteBuffer.wrap(Files.readAllBytes(AstCache.cacheFileFor(script)))).readProgram();
+        assertThat(cached.toString()).isEqualTo("(2 * 3)");
+    }
+
+    @Test
+    void testCorruptCacheFallsBackToParsing() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("script.null"), "3 - 1;");
+        Files.write(AstCache.cacheFileFor(script), new byte[] {1, 2, 3});
+
+        Program program = AstCache.load(script);
+
+        assertThat(new Eval().evaluate(program, new Env()).inspect()).isEqualTo("2");
+        assertThat(Files.size(AstCache.cacheFileFor(script))).isGreaterThan(3);
+    }
+
+    @Test
+    void testErrorPositionsSurviveTheCache() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("script.null"), "let a = 1;\n\n  a + true;");
+        AstCache.load(script);
+
+        Program cached = AstCache.load(script);
+        var result = new Eval().evaluate(cached, new Env());
+
+        assertThat(result).isInstanceOf(ErrorObject.class);
+        assertThat(((ErrorObject) result).location()).isEqualTo("3:5");
+    }
+
+    @Test
+    void testRejectsUnknownFormat() {
+        assertThrows(AstFormatException.class, () -> new AstReader(ByteBuffer.wrap(new byte[] {0, 0, 0, 0, 0, 1})));
+    }
+
+    @Test
+    void testCorruptProgramDataIsRejected() throws IOException {
+        String input = "let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) }; [fib(10), {\"a\": [1][0:1]}];";
+        byte[] valid = AstWriter.write(parse(input), null, hash(input));
+        int header = Integer.BYTES + Short.BYTES + AstFormat.HASH_LENGTH;
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            byte[] data = valid.clone();
+            if (i % 2 == 0) {
+                data[header + random.nextInt(data.length - header)] ^= (byte) (1 << random.nextInt(8));
+            } else {
+                data = Arrays.copyOf(data, header + random.nextInt(data.length - header));
+                for (int j = header; j < data.length; j++) {
+                    data[j] = (byte) random.nextInt();
+                }
+            }
+            readOrReject(data);
+        }
+    }
+
+    @Test
+    void testHugeCountsAreRejected() {
+        byte[] valid = AstWriter.write(parse("1;"), null, hash("1;"));
+        int header = Integer.BYTES + Short.BYTES + AstFormat.HASH_LENGTH;
+        byte[] data = Arrays.copyOf(valid, header + 5);
+        // A string table size of -1 and of Integer.MAX_VALUE.
+        data[header] = (byte) 0xFF;
+        data[header + 1] = (byte) 0xFF;
+        data[header + 2] = (byte) 0xFF;
+        data[header + 3] = (byte) 0xFF;
+        data[header + 4] = 0x0F;
+        assertThrows(AstFormatException.class, () -> new AstReader(ByteBuffer.wrap(data)).readProgram());
+
+        data[header + 4] = 0x07;
+        assertThrows(AstFormatException.class, () -> new AstReader(ByteBuffer.wrap(data)).readProgram());
+    }
+
+    private static void readOrReject(byte[] data) {
+        try {
+            new AstReader(ByteBuffer.wrap(data)).readProgram();
+        } catch (AstFormatException expected) {
+        }
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+
+    private static byte[] hash(String input) {
+        return AstCache.sha256(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
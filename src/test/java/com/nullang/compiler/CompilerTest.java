@@ -0,0 +1,87 @@
+package com.nullang.compiler;
+
+import com.nullang.ast.Program;
+import com.nullang.compiler.errors.CompilerException;
+import com.nullang.lexer.Lexer;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CompilerTest {
+    @Test
+    void testIntegerArithmetic() {
+        Bytecode bytecode = compile("1 + 2; 1 * 2;");
+
+        assertThat(Instructions.disassemble(bytecode.main().instructions())).isEqualTo("""
+                0000 CONSTANT 0
+                0003 CONSTANT 1
+                0006 ADD
+                0007 POP
+                0008 CONSTANT 0
+                0011 CONSTANT 1
+                0014 MUL
+                0015 POP
+                """);
+        assertThat(bytecode.constants().length).isEqualTo(2);
+    }
+
+    @Test
+    void testConditionals() {
+        Bytecode bytecode = compile("if (true) { 10 }; 3333;");
+
+        assertThat(Instructions.disassemble(bytecode.main().instructions())).isEqualTo("""
+                0000 TRUE
+                0001 JUMP_NOT_TRUTHY 14
+                0006 CONSTANT 0
+                0009 JUMP 15
+                0014 NULL
+                0015 POP
+                0016 CONSTANT 1
+                0019 POP
+                """);
+    }
+
+    @Test
+    void testGlobalsLocalsAndBuiltins() {
+        Bytecode bytecode = compile("let a = 1; let f = fn(x) { let y = x; fn() { a + x + y + len } };");
+
+        CompiledFunction inner = (CompiledFunction) bytecode.constants()[1];
+        CompiledFunction outer = (CompiledFunction) bytecode.constants()[2];
+        assertThat(Instructions.disassemble(outer.instructions())).isEqualTo("""
+                0000 GET_LOCAL 0
+                0002 SET_LOCAL 1
+                0004 CLOSURE 1
+                0007 RETURN_VALUE
+                """);
+        assertThat(Instructions.disassemble(inner.instructions())).isEqualTo("""
+                0000 GET_GLOBAL 0
+                0003 GET_OUTER 1 0
+                0006 ADD
+                0007 GET_OUTER 1 1
+                0010 ADD
+                0011 GET_BUILTIN 0
+                0013 ADD
+                0014 RETURN_VALUE
+                """);
+        assertThat(outer.numLocals()).isEqualTo(2);
+        assertThat(bytecode.globalNames()).isEqualTo(new String[] {"a", "f"});
+    }
+
+    @Test
+    void testTracksMaximumStackDepth() {
+        assertThat(compile("[1, 2, [3, 4, 5]];").main().maxStack()).isEqualTo(5);
+    }
+
+    @Test
+    void testRejectsTooManyArguments() {
+        String args = "1, ".repeat(300) + "1";
+        assertThrows(CompilerException.class, () -> compile("puts(" + args + ");"));
+    }
+
+    private static Bytecode compile(String input) {
+        Program program = new Parser(new Lexer(input)).parseProgram();
+        return new Compiler().compile(program);
+    }
+}
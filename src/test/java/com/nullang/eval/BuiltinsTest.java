@@ -0,0 +1,70 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Program;
+import com.nullang.engine.Engine;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BuiltinsTest {
+    static {
+        if (Builtins.lookup("triple") == null) {
+            Builtins.register("triple", BuiltinsTest::triple);
+        }
+    }
+
+    private static NullangObject triple(List<NullangObject> args) {
+        if (args.size() != 1 || !(args.getFirst() instanceof IntegerObject value)) {
+            return new ErrorObject("triple expects one integer");
+        }
+        return IntegerObject.valueOf(value.value() * 3);
+    }
+
+    @Test
+    void testLookupReturnsTheSameObject() {
+        assertThat(Builtins.lookup("len")).isSameAs(Builtins.lookup("len"));
+        assertThat(Builtins.get(Builtins.indexOf("push"))).isSameAs(Builtins.lookup("push"));
+        assertThat(Builtins.lookup("missing")).isNull();
+    }
+
+    @Test
+    void testCoreBuiltinsKeepTheirIndices() {
+        assertThat(Builtins.names().subList(0, 5)).isEqualTo(List.of("len", "puts", "first", "tail", "push"));
+    }
+
+    @Test
+    void testRegisteringATakenNameFails() {
+        assertThrows(IllegalArgumentException.class, () -> Builtins.register("len", args -> args.getFirst()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"eval", "closure", "vm"})
+    void testHostBuiltinsRunOnEveryEngine(String name) {
+        var engine = Engine.named(name);
+
+        assertThat(engine.run(parse("let f = fn(x) { triple(x) + 1 }; f(4);")).inspect()).isEqualTo("13");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"eval", "closure", "vm"})
+    void testHostBuiltinErrorsGetTheCallPosition(String name) {
+        var error = (ErrorObject) Engine.named(name).run(parse("1;\n  triple(true);"));
+
+        assertThat(error.message()).isEqualTo("triple expects one integer");
+        assertThat(error.location()).isEqualTo("2:9");
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+}
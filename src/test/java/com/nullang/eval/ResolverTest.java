@@ -0,0 +1,117 @@
+package com.nullang.eval;
+
+import com.nullang.ast.Identifier;
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.lexer.Lexer;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResolverTest {
+    private static Stream<Arguments> scoping() {
+        return Stream.of(
+                Arguments.of("let x = 1; let f = fn(x) { x }; f(2);", "2"),
+                Arguments.of("let x = 1; let f = fn() { x }; f();", "1"),
+                Arguments.of("let f = fn(a) { let b = a * 2; b + a }; f(3);", "9"),
+                Arguments.of("let f = fn(a, a) { a }; f(1, 2);", "2"),
+                Arguments.of("let adder = fn(a) { fn(b) { fn(c) { a + b + c } } }; adder(1)(2)(3);", "6"),
+                Arguments.of("let f = fn() { let g = fn() { y }; let y = 5; g() }; f();", "5"),
+                Arguments.of("let y = 1; let f = fn() { let z = y; let y = 2; z + y }; f();", "3"),
+                Arguments.of("let y = 1; let f = fn(c) { if (c) { let y = 10; } y }; f(false);", "1"),
+                Arguments.of("let y = 1; let f = fn(c) { if (c) { let y = 10; } y }; f(true);", "10"),
+                Arguments.of("let fact = fn(n) { if (n < 2) { return 1; } n * fact(n - 1) }; fact(5);", "120"),
+                Arguments.of("let f = fn() { let len = fn(x) { 42 }; len(\"abc\") }; f();", "42"),
+                Arguments.of("let f = fn() { len(\"abc\") }; f();", "3"),
+                Arguments.of("let f = fn() { missing }; f();", "ERROR: identifier not found: missing")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("scoping")
+    void testResolvedProgramsKeepScoping(String input, String expected) {
+        Program program = parse(input);
+
+        assertThat(new Eval().evaluate(program, new Env()).inspect()).isEqualTo(expected);
+        assertThat(program.isResolved()).isTrue();
+    }
+
+    @Test
+    void testAssignsDepthAndSlot() {
+        Program program = parse("let g = 1; let f = fn(a, b) { let c = fn(d) { a + d + g } };");
+        Resolver.resolve(program);
+
+        var outer = (FnExpression) ((LetStatement) program.statements.get(1)).getValue();
+        assertThat(outer.body().getSlotNames()).isEqualTo(new String[] {"a", "b", "c"});
+
+        var inner = (FnExpression) ((LetStatement) outer.body().getStatement(0)).getValue();
+        assertThat(inner.body().getSlotNames()).isEqualTo(new String[] {"d"});
+
+        var sum = (InfixExpression) ((ExpressionStatement) inner.body().getStatement(0)).expression();
+        var left = (InfixExpression) sum.getLeft();
+        assertAddress((Identifier) left.getLeft(), 1, 0);
+        assertAddress((Identifier) left.getRight(), 0, 0);
+        assertAddress((Identifier) sum.getRight(), Identifier.GLOBAL, -1);
+    }
+
+    @Test
+    void testTopLevelNamesStayGlobal() {
+        Program program = parse("let a = 1; a;");
+        Resolver.resolve(program);
+
+        assertAddress(((LetStatement) program.statements.get(0)).getName(), Identifier.GLOBAL, -1);
+        assertAddress((Identifier) ((ExpressionStatement) program.statements.get(1)).expression(), Identifier.GLOBAL, -1);
+    }
+
+    @Test
+    void testBuiltinNamesResolveToRegistryIndex() {
+        Program program = parse("len; let f = fn(len) { len };");
+        Resolver.resolve(program);
+
+        assertAddress((Identifier) ((ExpressionStatement) program.statements.get(0)).expression(),
+                Identifier.BUILTIN, Builtins.indexOf("len"));
+        var fn = (FnExpression) ((LetStatement) program.statements.get(1)).getValue();
+        assertAddress((Identifier) ((ExpressionStatement) fn.body().getStatement(0)).expression(), 0, 0);
+    }
+
+    @Test
+    void testGlobalsDefinedLaterStillShadowBuiltins() {
+        Env env = new Env();
+        var eval = new Eval();
+        eval.evaluate(parse("let f = fn(x) { len(x) };"), env);
+
+        assertThat(eval.evaluate(parse("f(\"abc\");"), env).inspect()).isEqualTo("3");
+
+        eval.evaluate(parse("let len = fn(x) { 42 };"), env);
+        assertThat(eval.evaluate(parse("f(\"abc\");"), env).inspect()).isEqualTo("42");
+    }
+
+    @Test
+    void testUnresolvedNodesStillEvaluate() {
+        Env env = new Env();
+        Program program = parse("let f = fn(a) { let b = a + 1; b }; f(1);");
+
+        var eval = new Eval();
+        eval.evaluate(program.statements.get(0), env);
+
+        assertThat(eval.evaluate(program.statements.get(1), env).inspect()).isEqualTo("2");
+    }
+
+    private static void assertAddress(Identifier identifier, int depth, int slot) {
+        assertThat(identifier.getDepth()).isEqualTo(depth);
+        assertThat(identifier.getSlot()).isEqualTo(slot);
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+}
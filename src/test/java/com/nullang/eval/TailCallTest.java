@@ -0,0 +1,65 @@
+package com.nullang.eval;
+
+import com.nullang.eval.jit.Jit;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TailCallTest {
+    private static Stream<Jit> jits() {
+        return Stream.of(Jit.DISABLED, new Jit(0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("jits")
+    void testDeepTailRecursionDoesNotOverflow(Jit jit) {
+        var input = """
+                let sum = fn(n, acc) { if (n < 1) { return acc; } sum(n - 1, acc + 1) };
+                sum(100000, 0);
+                """;
+
+        assertThat(run(input, jit).inspect()).isEqualTo("100000");
+    }
+
+    @ParameterizedTest
+    @MethodSource("jits")
+    void testTailCallsThroughIfBranchesAndReturns(Jit jit) {
+        var input = """
+                let even = fn(n) { if (n == 0) { true } else { return odd(n - 1); } };
+                let odd = fn(n) { if (n == 0) { false } else { even(n - 1) } };
+                even(100001);
+                """;
+
+        assertThat(run(input, jit).inspect()).isEqualTo("false");
+    }
+
+    @ParameterizedTest
+    @MethodSource("jits")
+    void testArrayWalkInTailPosition(Jit jit) {
+        var input = """
+                let count = fn(arr, i, acc) { if (i == len(arr)) { acc } else { count(arr, i + 1, acc + arr[i]) } };
+                let fill = fn(arr, n) { if (n == 0) { arr } else { fill(push(arr, n), n - 1) } };
+                count(fill([], 20000), 0, 0);
+                """;
+
+        assertThat(run(input, jit).inspect()).isEqualTo("200010000");
+    }
+
+    @Test
+    void testTailCallToBuiltinAndErrorsKeepTheirValues() {
+        assertThat(run("let f = fn(a) { len(a) }; f(\"four\");", Jit.DISABLED).inspect()).isEqualTo("4");
+        assertThat(run("let f = fn(a) { a(1) }; f(3);", Jit.DISABLED).inspect()).contains("not a function: INTEGER");
+        assertThat(run("let f = fn() { 1; }; let g = fn() { f() }; g() + 1;", Jit.DISABLED).inspect()).isEqualTo("2");
+    }
+
+    private static NullangObject run(String input, Jit jit) {
+        return new Eval(jit).evaluate(new Parser(new Lexer(input)).parseProgram(), new Env());
+    }
+}
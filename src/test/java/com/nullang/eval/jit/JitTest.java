@@ -0,0 +1,140 @@
+package com.nullang.eval.jit;
+
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.FnExpression;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JitTest {
+    private static Stream<String> programs() {
+        return Stream.of(
+                "let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) }; fib(15);",
+                "let f = fn(a, b) { a * b - a / b }; f(7, 2);",
+                "let f = fn(a, b) { a == b }; f(1, 1);",
+                "let f = fn(a, b) { a != b }; f(true, false);",
+                "let f = fn(a) { a > 3 }; f(5);",
+                "let f = fn(a) { -a + !true }; f(2);",
+                "let f = fn(a) { -a }; f(2);",
+                "let f = fn(s) { s + \"!\" }; f(\"hi\");",
+                "let f = fn(x) { if (x) { 1 } }; f(false);",
+                "let f = fn(x) { if (x) { 1 } else { 2 } }; f(0);",
+                "let f = fn() { }; 1;",
+                "let f = fn(a) { let b = a + 1; let c = b * 2; c }; f(3);",
+                "let f = fn(a) { return a; a + 1 }; f(3);",
+                "let f = fn(a) { if (a > 0) { if (a > 5) { return 10; } return 5; } 0 }; f(7);",
+                "let adder = fn(a) { fn(b) { a + b } }; adder(2)(3);",
+                "let f = fn(a) { let g = fn(b) { a + b }; g(1) }; f(41);",
+                "let f = fn() { let g = fn() { y }; let y = 5; g() }; f();",
+                "let y = 1; let f = fn() { let z = y; let y = 2; z + y }; f();",
+                "let f = fn(arr) { arr[1] + len(arr) }; f([1, 2, 3]);",
+                "let f = fn(a) { [a, a * 2] }; f(4);",
+                "let f = fn(a) { push(tail(a), 9) }; f([1, 2]);",
+                "let f = fn(a) { a + true }; f(1);",
+                "let f = fn(a) { -a }; f(true);",
+                "let f = fn() { missing }; f();",
+                "let f = fn(a) { a(1) }; f(3);",
+                "let f = fn(a, b) { a }; f(1);",
+                "let f = fn(a) { if (a) { return; } 1 }; f(true);",
+                "let f = fn(a) { len(a) }; f(1);",
+                "let g = fn(a) { a + \"x\" }; let f = fn(a) { g(a) * 2 }; f(1);",
+                "let f = fn(n, acc) { if (n < 1) { return acc; } f(n - 1, acc * 2) }; f(10, 1);",
+                "let g = fn(a) { a + true }; let f = fn(a) { if (a) { g(1) } else { len(a) } }; f(true);"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("programs")
+    void testCompiledBodiesMatchInterpreter(String input) {
+        var interpreted = new Eval(Jit.DISABLED).evaluate(parse(input), new Env());
+        var compiled = new Eval(new Jit(0)).evaluate(parse(input), new Env());
+
+        assertThat(compiled.inspect()).isEqualTo(interpreted.inspect());
+        if (interpreted instanceof ErrorObject error) {
+            assertThat(((ErrorObject) compiled).location()).isEqualTo(error.location());
+        }
+    }
+
+    @Test
+    void testCompilesAfterThreshold() {
+        Program program = parse("let f = fn(a) { a + 1 }; f(1); f(2); f(3);");
+        var body = ((FnExpression) ((LetStatement) program.statements.getFirst()).getValue()).body();
+
+        var jit = new Jit(2);
+        assertThat(new Eval(jit).evaluate(program, new Env()).inspect()).isEqualTo("4");
+        assertThat(jit.compiled(body)).isNotNull();
+        assertThat(jit.compiled(body).getClass().isHidden()).isTrue();
+    }
+
+    @Test
+    void testStaysInterpretedBelowThreshold() {
+        Program program = parse("let f = fn(a) { a + 1 }; f(1); f(2);");
+        var body = ((FnExpression) ((LetStatement) program.statements.getFirst()).getValue()).body();
+
+        var jit = new Jit(2);
+        new Eval(jit).evaluate(program, new Env());
+        assertThat(jit.compiled(body)).isNull();
+    }
+
+    @Test
+    void testCountsCallsFromSeveralThreads() throws InterruptedException {
+        Program program = parse("let f = fn(a) { a + 1 };");
+        var body = ((FnExpression) ((LetStatement) program.statements.getFirst()).getValue()).body();
+        new Eval(Jit.DISABLED).evaluate(program, new Env());
+        var jit = new Jit(Integer.MAX_VALUE - 1);
+
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    jit.compiledBody(body);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(jit.invocations(body)).isEqualTo(80_000);
+        assertThat(jit.compiled(body)).isNull();
+    }
+
+    @Test
+    void testJitStateStaysOffTheTree() {
+        Program program = parse("let f = fn(a) { a + 1 }; f(1); f(2);");
+        var body = ((FnExpression) ((LetStatement) program.statements.getFirst()).getValue()).body();
+        var hot = new Jit(0);
+        var cold = new Jit(5);
+
+        new Eval(hot).evaluate(program, new Env());
+        new Eval(cold).evaluate(program, new Env());
+
+        assertThat(hot.compiled(body)).isNotNull();
+        assertThat(cold.compiled(body)).isNull();
+        assertThat(cold.invocations(body)).isEqualTo(2);
+    }
+
+    @Test
+    void testCompiledRecursionKeepsGlobalsLive() {
+        var env = new Env();
+        var eval = new Eval(new Jit(0));
+        eval.evaluate(parse("let sum = fn(n) { if (n < 1) { return 0; } n + sum(n - 1) };"), env);
+
+        assertThat(eval.evaluate(parse("sum(1000);"), env).inspect()).isEqualTo("500500");
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+}
@@ -0,0 +1,119 @@
+package com.nullang.eval.node;
+
+import com.nullang.ast.Program;
+import com.nullang.ast.expression.Expression;
+import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.statement.ExpressionStatement;
+import com.nullang.ast.statement.LetStatement;
+import com.nullang.ast.statement.Statement;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.IntegerObject;
+import com.nullang.nullangobject.StringObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InfixNodeTest {
+    @Test
+    void testSpecializesOnFirstOperandTypes() {
+        var site = new InfixSite(infix(parse("a + b;")));
+        assertThat(site.node()).isInstanceOf(UninitializedInfixNode.class);
+
+        assertThat(site.execute(IntegerObject.valueOf(1), IntegerObject.valueOf(2)).inspect()).isEqualTo("3");
+        assertThat(site.node()).isInstanceOf(IntegerInfixNode.Add.class);
+    }
+
+    @Test
+    void testFallsBackToGenericWhenGuardFails() {
+        var site = new InfixSite(infix(parse("a + b;")));
+
+        site.execute(IntegerObject.valueOf(1), IntegerObject.valueOf(2));
+        assertThat(site.execute(new StringObject("a"), new StringObject("b")).inspect()).isEqualTo("ab");
+        assertThat(site.node()).isInstanceOf(GenericInfixNode.class);
+
+        assertThat(site.execute(IntegerObject.valueOf(3), IntegerObject.valueOf(4)).inspect()).isEqualTo("7");
+        assertThat(site.node()).isInstanceOf(GenericInfixNode.class);
+    }
+
+    @Test
+    void testStringConcatSpecialization() {
+        var site = new InfixSite(infix(parse("a + b;")));
+
+        assertThat(site.execute(new StringObject("a"), new StringObject("b")).inspect()).isEqualTo("ab");
+        assertThat(site.node()).isInstanceOf(StringConcatNode.class);
+    }
+
+    @Test
+    void testSitesOfOneExpressionSpecializeIndependently() {
+        var infix = infix(parse("a + b;"));
+        var ints = InfixSite.of(infix);
+        var strings = new InfixSite(infix);
+
+        ints.execute(IntegerObject.valueOf(1), IntegerObject.valueOf(2));
+        strings.execute(new StringObject("a"), new StringObject("b"));
+
+        assertThat(InfixSite.of(infix)).isSameAs(ints);
+        assertThat(ints.node()).isInstanceOf(IntegerInfixNode.Add.class);
+        assertThat(strings.node()).isInstanceOf(StringConcatNode.class);
+    }
+
+    @Test
+    void testUnboxedArithmeticNeedsNesting() {
+        assertThat(new InfixSite(infix(parse("a + b * 2;"))).isUnboxedArithmetic()).isTrue();
+        assertThat(new InfixSite(infix(parse("a + b;"))).isUnboxedArithmetic()).isFalse();
+        assertThat(new InfixSite(infix(parse("a + (b < 2);"))).isUnboxedArithmetic()).isFalse();
+    }
+
+    @Test
+    void testGenericNodeKeepsErrors() {
+        Program program = parse("let f = fn(a, b) { a - b }; f(3, 1); f(\"a\", 1);");
+
+        assertThat(new Eval().evaluate(program, new Env()).inspect()).isEqualTo("ERROR: type mismatch: STRING - INTEGER");
+    }
+
+    @Test
+    void testStreamingReleasesEvaluatedExpressions() throws InterruptedException {
+        var source = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            source.append("let x = ").append(i).append(" + 1;\n");
+        }
+        List<WeakReference<Expression>> evaluated = new ArrayList<>();
+        var eval = new Eval();
+
+        try (var parser = new Parser(new Lexer(source.toString())) {
+            @Override
+            public Optional<Statement> parseNextStatement() {
+                var statement = super.parseNextStatement();
+                statement.ifPresent(s -> evaluated.add(new WeakReference<>(((LetStatement) s).getValue())));
+                return statement;
+            }
+        }) {
+            assertThat(eval.evaluateStreaming(parser, new Env()).inspect()).isEqualTo("1000");
+        }
+
+        for (int i = 0; i < 50 && evaluated.stream().anyMatch(ref -> ref.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(evaluated).hasSize(1_000);
+        assertThat(evaluated.stream().filter(ref -> ref.get() != null).count()).isEqualTo(0L);
+        Reference.reachabilityFence(eval);
+    }
+
+    private static InfixExpression infix(Program program) {
+        return (InfixExpression) ((ExpressionStatement) program.statements.getFirst()).expression();
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+}
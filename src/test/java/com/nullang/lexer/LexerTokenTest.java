@@ -1,20 +1,32 @@
 package com.nullang.lexer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.nullang.token.Token;
 import com.nullang.token.TokenType;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
 public class LexerTokenTest {
+    @TempDir
+    Path tempDir;
+
     @ParameterizedTest(name = "{index} ⇒ {0}")
     @MethodSource("correctInput")
     void testDelimiters(String name, String input, List<Token> expectedTokens) {
@@ -27,6 +39,186 @@ public class LexerTokenTest {
         }
     }
 
+    @ParameterizedTest(name = "{index} ⇒ {0}")
+    @MethodSource("correctInput")
+    void testCharArraySource(String name, String input, List<Token> expectedTokens) {
+        try (Lexer lexer = new Lexer(input.toCharArray())) {
+            for (Token expected : expectedTokens) {
+                assertToken(lexer, expected.literal(), expected.type());
+            }
+            assertToken(lexer, "", TokenType.EOF);
+        }
+    }
+
+    @ParameterizedTest(name = "{index} ⇒ {0}")
+    @MethodSource("correctInput")
+    void testBufferedReaderSource(String name, String input, List<Token> expectedTokens) {
+        try (Lexer lexer = Lexer.buffered(new StringReader(input))) {
+            for (Token expected : expectedTokens) {
+                assertToken(lexer, expected.literal(), expected.type());
+            }
+            assertToken(lexer, "", TokenType.EOF);
+        }
+    }
+
+    @ParameterizedTest(name = "{index} ⇒ {0}")
+    @MethodSource("correctInput")
+    void testTokenArray(String name, String input, List<Token> expectedTokens) {
+        TokenArray tokens = TokenArray.tokenize(input);
+        List<Token> expected = new ArrayList<>(expectedTokens);
+        if (expected.isEmpty() || expected.getLast().type() != TokenType.EOF) {
+            expected.add(new Token(TokenType.EOF, ""));
+        }
+
+        assertEquals(expected.size(), tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(expected.get(i).type(), tokens.type(i));
+            assertEquals(expected.get(i), tokens.token(i));
+        }
+    }
+
+    @Test
+    void tokenArrayRecordsSourceOffsets() {
+        TokenArray tokens = TokenArray.tokenize("let name = \"hi\";");
+
+        assertEquals(TokenType.IDENT, tokens.type(1));
+        assertEquals(4, tokens.start(1));
+        assertEquals(4, tokens.length(1));
+        assertEquals(TokenType.STRING, tokens.type(3));
+        assertEquals(12, tokens.start(3));
+        assertEquals(2, tokens.length(3));
+    }
+
+    @Test
+    void tokenArrayInternsIdentifiersOnce() {
+        TokenArray tokens = TokenArray.tokenize("let x = 1; x + x;");
+
+        String first = tokens.token(1).literal();
+        assertSame(first, tokens.token(5).literal());
+        assertSame(first, tokens.token(7).literal());
+        assertSame(first, tokens.token(1).literal());
+    }
+
+    @Test
+    void tokensKeepTheirTextAfterReaderBufferIsCompacted() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            input.append("name_").append((char) ('a' + i % 26)).append(" \"text ").append(i).append("\" ").append(i).append(' ');
+        }
+
+        List<Token> tokens = new ArrayList<>();
+        try (Lexer lexer = new Lexer(new StringReader(input.toString()))) {
+            Token token;
+            while ((token = lexer.nextToken()).type() != TokenType.EOF) {
+                tokens.add(token);
+            }
+        }
+
+        assertEquals(15000, tokens.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(new Token(TokenType.IDENT, "name_" + (char) ('a' + i % 26)), tokens.get(i * 3));
+            assertEquals(new Token(TokenType.STRING, "text " + i), tokens.get(i * 3 + 1));
+            assertEquals(new Token(TokenType.INT, String.valueOf(i)), tokens.get(i * 3 + 2));
+        }
+    }
+
+    @Test
+    void tokensReportLineAndColumnAcrossReaderBlocks() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append("let x = ").append(i).append(";\n");
+        }
+        input.append("    last");
+
+        try (Lexer lexer = new Lexer(new StringReader(input.toString()))) {
+            Token token;
+            Token previous = null;
+            while ((token = lexer.nextToken()).type() != TokenType.EOF) {
+                previous = token;
+            }
+
+            assertEquals("last", previous.literal());
+            assertEquals(3001, previous.line());
+            assertEquals(5, previous.column());
+        }
+    }
+
+    @Test
+    void lineStartsIgnoreUnfilledBufferSpace() {
+        char[] source = "a\nb\n\n\n\n".toCharArray();
+
+        try (Lexer lexer = new Lexer(source, 3)) {
+            while (lexer.nextToken().type() != TokenType.EOF) {
+            }
+
+            assertArrayEquals(new int[] {0, 2}, lexer.lineIndex().lineStarts());
+        }
+
+        try (Lexer lexer = new Lexer(new StringReader("a\nb"))) {
+            while (lexer.nextToken().type() != TokenType.EOF) {
+            }
+
+            assertArrayEquals(new int[] {0, 2}, lexer.lineIndex().lineStarts());
+        }
+    }
+
+    @Test
+    void identifiersAreInternedAcrossTheSource() {
+        SymbolTable symbols = new SymbolTable();
+        try (Lexer lexer = new Lexer(new StringReader("let count = count + other; count"), symbols)) {
+            lexer.nextToken();
+            Token first = lexer.nextToken();
+            lexer.nextToken();
+            Token second = lexer.nextToken();
+            lexer.nextToken();
+            Token other = lexer.nextToken();
+            lexer.nextToken();
+            Token third = lexer.nextToken();
+
+            assertSame(first.literal(), second.literal());
+            assertSame(first.literal(), third.literal());
+            assertEquals("other", other.literal());
+            assertEquals(2, symbols.size());
+        }
+    }
+
+    @Test
+    void keywordPrefixesAreIdentifiers() {
+        try (Lexer lexer = new Lexer("fnx lets iff elsewhere returns truth falsey f")) {
+            for (String name : List.of("fnx", "lets", "iff", "elsewhere", "returns", "truth", "falsey", "f")) {
+                assertToken(lexer, name, TokenType.IDENT);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{index} ⇒ {0}")
+    @MethodSource("correctInput")
+    void testMappedFileSource(String name, String input, List<Token> expectedTokens) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("source.null"), input);
+        try (Lexer lexer = Lexer.mapped(file)) {
+            for (Token expected : expectedTokens) {
+                assertToken(lexer, expected.literal(), expected.type());
+            }
+            assertToken(lexer, "", TokenType.EOF);
+        }
+    }
+
+    @Test
+    void mappedSourceDecodesUtf8AcrossBlocks() throws IOException {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append("\"zażółć ").append(i).append(" 😀\" ");
+        }
+        Path file = Files.writeString(tempDir.resolve("utf8.null"), input, StandardCharsets.UTF_8);
+
+        try (Lexer lexer = Lexer.mapped(file)) {
+            for (int i = 0; i < 3000; i++) {
+                assertToken(lexer, "zażółć " + i + " 😀", TokenType.STRING);
+            }
+            assertToken(lexer, "", TokenType.EOF);
+        }
+    }
+
     private static void assertToken(Lexer lexer, String literal, TokenType type) {
         Token actual = lexer.nextToken();
         assertEquals(literal, actual.literal());
@@ -54,6 +246,16 @@ public class LexerTokenTest {
                                 new Token(TokenType.SEMICOLON, ";"),
                                 new Token(TokenType.EOF, "")
                         )),
+                Arguments.of("should parse a slice",
+                        "a[1:]",
+                        List.of(
+                                new Token(TokenType.IDENT, "a"),
+                                new Token(TokenType.LBRACKET, "["),
+                                new Token(TokenType.INT, "1"),
+                                new Token(TokenType.COLON, ":"),
+                                new Token(TokenType.RBRACKET, "]"),
+                                new Token(TokenType.EOF, "")
+                        )),
                 Arguments.of("should parse illegal characters",
                         "& ^ % @ #",
                         List.of(
@@ -0,0 +1,70 @@
+package com.nullang.loader;
+
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.parser.errors.ParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScriptLoaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadsEveryFileInGivenOrder() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            paths.add(Files.writeString(tempDir.resolve("script" + i + ".null"), "let x = " + i + "; x * 2;"));
+        }
+
+        Map<Path, ScriptLoadResult> results = ScriptLoader.loadAll(paths);
+
+        assertThat(new ArrayList<>(results.keySet())).isEqualTo(paths);
+        for (int i = 0; i < paths.size(); i++) {
+            ScriptLoadResult result = results.get(paths.get(i));
+            assertThat(result.isLoaded()).isEqualTo(true);
+            assertThat(result.elapsed()).isNotNull();
+            assertThat(new Eval().evaluate(result.program(), new Env()).inspect()).isEqualTo(String.valueOf(i * 2));
+        }
+    }
+
+    @Test
+    void reportsErrorsPerFile() throws IOException {
+        Path good = Files.writeString(tempDir.resolve("good.null"), "let a = 1;");
+        Path bad = Files.writeString(tempDir.resolve("bad.null"), "let = 1;");
+        Path missing = tempDir.resolve("missing.null");
+
+        Map<Path, ScriptLoadResult> results;
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            results = new ScriptLoader(executor).load(List.of(good, bad, missing));
+        }
+
+        assertThat(results.get(good).isLoaded()).isEqualTo(true);
+        assertThat(results.get(bad).error()).isInstanceOf(ParserException.class);
+        assertThat(results.get(bad).program()).isNull();
+        assertThat(results.get(missing).error()).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void loadsEachFileOnce() throws IOException {
+        Path script = Files.writeString(tempDir.resolve("script.null"), "let a = 1;");
+        Path respelled = tempDir.resolve("sub").resolve("..").resolve("script.null");
+        Path relative = Path.of("").toAbsolutePath().relativize(script);
+
+        Map<Path, ScriptLoadResult> results = ScriptLoader.loadAll(List.of(script, respelled, relative, script));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(script).isLoaded()).isEqualTo(true);
+    }
+}
@@ -0,0 +1,124 @@
+package com.nullang.nullangobject;
+
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.lexer.Lexer;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArrayObjectTest {
+    @Test
+    void testIntegerElementsArePacked() {
+        var array = new ArrayObject(List.of(IntegerObject.valueOf(1), IntegerObject.valueOf(100000)));
+
+        assertThat(array.isIntArray()).isTrue();
+        assertThat(array.size()).isEqualTo(2);
+        assertThat(array.get(1)).isEqualTo(new IntegerObject(100000));
+    }
+
+    @Test
+    void testPushingAnIntegerKeepsPackedStorage() {
+        var array = new ArrayObject(List.of());
+        for (int i = 0; i < 100; i++) {
+            array = array.push(IntegerObject.valueOf(i));
+        }
+
+        assertThat(array.isIntArray()).isTrue();
+        assertThat(array.size()).isEqualTo(100);
+        assertThat(array.get(99)).isEqualTo(IntegerObject.valueOf(99));
+    }
+
+    @Test
+    void testPushingAnotherTypeGeneralizes() {
+        var array = new ArrayObject(List.of(IntegerObject.valueOf(1), IntegerObject.valueOf(2)));
+        var pushed = array.push(new StringObject("three"));
+
+        assertThat(pushed.isIntArray()).isFalse();
+        assertThat(pushed.elements()).containsExactly(IntegerObject.valueOf(1), IntegerObject.valueOf(2), new StringObject("three"));
+        assertThat(array.isIntArray()).isTrue();
+    }
+
+    @Test
+    void testMixedElementsUseObjectStorage() {
+        var array = new ArrayObject(List.of(IntegerObject.valueOf(1), BooleanObject.TRUE));
+
+        assertThat(array.isIntArray()).isFalse();
+        assertThat(array.get(1)).isEqualTo(BooleanObject.TRUE);
+    }
+
+    @Test
+    void testPushLeavesTheOriginalUnchanged() {
+        var original = new ArrayObject(List.of(IntegerObject.valueOf(1)));
+        var first = original.push(IntegerObject.valueOf(2));
+        var second = original.push(IntegerObject.valueOf(3));
+
+        assertThat(original.elements()).containsExactly(IntegerObject.valueOf(1));
+        assertThat(first.elements()).containsExactly(IntegerObject.valueOf(1), IntegerObject.valueOf(2));
+        assertThat(second.elements()).containsExactly(IntegerObject.valueOf(1), IntegerObject.valueOf(3));
+    }
+
+    @Test
+    void testPushAcrossTrieLevelsMatchesBulkConstruction() {
+        var expected = new ArrayList<NullangObject>();
+        var pushed = new ArrayObject(List.of());
+        var mixed = new ArrayObject(List.of());
+        for (int i = 0; i < 40000; i++) {
+            expected.add(IntegerObject.valueOf(i));
+            pushed = pushed.push(IntegerObject.valueOf(i));
+            mixed = mixed.push(i == 1500 ? new StringObject("x") : IntegerObject.valueOf(i));
+        }
+        var built = new ArrayObject(expected);
+
+        assertThat(pushed).isEqualTo(built);
+        for (int i = 0; i < expected.size(); i += 997) {
+            assertThat(pushed.get(i)).isEqualTo(expected.get(i));
+            assertThat(built.get(i)).isEqualTo(expected.get(i));
+        }
+        assertThat(mixed.isIntArray()).isFalse();
+        assertThat(mixed.get(1500)).isEqualTo(new StringObject("x"));
+        assertThat(mixed.get(39999)).isEqualTo(IntegerObject.valueOf(39999));
+        assertThat(mixed.get(31)).isEqualTo(IntegerObject.valueOf(31));
+    }
+
+    @Test
+    void testSlicesShareStorage() {
+        var array = new ArrayObject(List.of(IntegerObject.valueOf(1), IntegerObject.valueOf(2), IntegerObject.valueOf(3)));
+        var tail = array.slice(1, 3);
+        var middle = array.slice(1, 2);
+
+        assertThat(tail.elements()).containsExactly(IntegerObject.valueOf(2), IntegerObject.valueOf(3));
+        assertThat(tail.push(IntegerObject.valueOf(4)).elements())
+                .containsExactly(IntegerObject.valueOf(2), IntegerObject.valueOf(3), IntegerObject.valueOf(4));
+        assertThat(middle.push(IntegerObject.valueOf(9)).elements()).containsExactly(IntegerObject.valueOf(2), IntegerObject.valueOf(9));
+        assertThat(array.elements()).containsExactly(IntegerObject.valueOf(1), IntegerObject.valueOf(2), IntegerObject.valueOf(3));
+        assertThat(array.slice(5, 9).isEmpty()).isTrue();
+        assertThat(array.slice(2, 1).isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRecursiveWalkWithRest() {
+        var input = """
+                let build = fn(arr, n) { if (n == 0) { arr } else { build(push(arr, 1), n - 1) } };
+                let sum = fn(arr, acc) { if (len(arr) == 0) { acc } else { sum(rest(arr), acc + first(arr)) } };
+                sum(build([], 200000), 0);
+                """;
+        var result = new Eval().evaluate(new Parser(new Lexer(input)).parseProgram(), new Env());
+
+        assertThat(result.inspect()).isEqualTo("200000");
+    }
+
+    @Test
+    void testBuiltinsAndIndexingOnPackedArrays() {
+        var input = "let a = push(push([3, 1, 4], 1), 5); [len(a), first(a), tail(a), a[2], a[5], a[-1]];";
+        var result = new Eval().evaluate(new Parser(new Lexer(input)).parseProgram(), new Env());
+
+        assertThat(((ArrayObject) result).elements()).containsExactly(
+                IntegerObject.valueOf(5), IntegerObject.valueOf(3), IntegerObject.valueOf(5),
+                IntegerObject.valueOf(4), NullObject.NULL, NullObject.NULL);
+    }
+}
@@ -0,0 +1,62 @@
+package com.nullang.nullangobject;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HashObjectTest {
+    @Test
+    void testKeysOfDifferentTypesAreDistinct() {
+        var hash = new HashObject(
+                List.of(IntegerObject.valueOf(1), new StringObject("1"), BooleanObject.TRUE),
+                List.of(new StringObject("int"), new StringObject("string"), new StringObject("bool")));
+
+        assertThat(hash.size()).isEqualTo(3);
+        assertThat(hash.get(IntegerObject.valueOf(1))).isEqualTo(new StringObject("int"));
+        assertThat(hash.get(new StringObject("1"))).isEqualTo(new StringObject("string"));
+        assertThat(hash.get(BooleanObject.TRUE)).isEqualTo(new StringObject("bool"));
+        assertThat(hash.get(BooleanObject.FALSE)).isNull();
+    }
+
+    @Test
+    void testLaterDuplicatesReplaceValues() {
+        var hash = new HashObject(
+                List.of(new StringObject("a"), new StringObject("b"), new StringObject("a")),
+                List.of(IntegerObject.valueOf(1), IntegerObject.valueOf(2), IntegerObject.valueOf(3)));
+
+        assertThat(hash.size()).isEqualTo(2);
+        assertThat(hash.get(new StringObject("a"))).isEqualTo(IntegerObject.valueOf(3));
+        assertThat(hash.inspect()).isEqualTo("{a: 3, b: 2}");
+    }
+
+    @Test
+    void testManyKeys() {
+        List<NullangObject> keys = new ArrayList<>();
+        List<NullangObject> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            keys.add(i % 2 == 0 ? IntegerObject.valueOf(i * 1024) : new StringObject("/route/" + i));
+            values.add(IntegerObject.valueOf(i));
+        }
+        var hash = new HashObject(keys, values);
+
+        assertThat(hash.size()).isEqualTo(10000);
+        for (int i = 0; i < 10000; i++) {
+            assertThat(hash.get(keys.get(i))).isEqualTo(IntegerObject.valueOf(i));
+        }
+        assertThat(hash.get(new StringObject("/route/0"))).isNull();
+        assertThat(hash.get(IntegerObject.valueOf(1))).isNull();
+    }
+
+    @Test
+    void testUnhashableKeys() {
+        var array = new ArrayObject(List.of());
+
+        assertThat(HashObject.isHashable(array)).isFalse();
+        assertThat(new HashObject(List.of(), List.of()).get(array)).isNull();
+        assertThrows(IllegalArgumentException.class, () -> new HashObject(List.of(array), List.of(NullObject.NULL)));
+    }
+}
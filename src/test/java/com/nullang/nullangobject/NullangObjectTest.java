@@ -9,6 +9,7 @@ import com.nullang.lexer.Lexer;
 import com.nullang.parser.Parser;
 import com.nullang.token.Token;
 import com.nullang.token.TokenType;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -129,6 +130,27 @@ public class NullangObjectTest {
         );
     }
 
+    private static Stream<Arguments> errorPositions() {
+        return Stream.of(
+                Arguments.of(parseInput("foobar"), 1, 1),
+                Arguments.of(parseInput("let a = 1;\nlet b = a + true;"), 2, 11),
+                Arguments.of(parseInput("let a = 1;\n\n  -true;"), 3, 3),
+                Arguments.of(parseInput("let f = fn(x) {\n  x + missing\n};\nf(1);"), 2, 7),
+                Arguments.of(parseInput("let a = 5;\n  a(1);"), 2, 4),
+                Arguments.of(parseInput("1;\nlen(1, 2);"), 2, 4)
+        );
+    }
+
+    private static Stream<Arguments> streamingPrograms() {
+        return Stream.of(
+                Arguments.of("let a = 5; let b = a * 2; b + 1;", "11"),
+                Arguments.of("let add = fn(x, y) { x + y }; let r = add(1, 2); r;", "3"),
+                Arguments.of("5; return 10; 15;", "10"),
+                Arguments.of("5; true + false; 5;", "ERROR: unknown operator: BOOLEAN + BOOLEAN"),
+                Arguments.of("let arr = [1, 2, 3]; let more = push(arr, 4); len(arr) * 10 + len(more);", "34")
+        );
+    }
+
     private static Stream<Arguments> letStatements() {
         return Stream.of(
                 Arguments.of("test1", parseInput("let a = 5; a;"), new IntegerObject(5)),
@@ -247,7 +269,7 @@ public class NullangObjectTest {
                 Arguments.of("first of array",
                         parseInput("tail([1,2,3])"),
                         "3"
-                ),
+                )
                 //TODO: test array in different test case
 //                Arguments.of("push element to array",
 //                        parseInput("push([1,2,3], 4)"),
@@ -393,6 +415,18 @@ public class NullangObjectTest {
     }
 
 
+    @ParameterizedTest
+    @MethodSource("errorPositions")
+    public void testErrorPositions(Program program, int line, int column) {
+        Eval e = new Eval();
+
+        var evaluated = (ErrorObject) e.evaluate(program, new Env());
+
+        assertThat(evaluated.hasPosition()).isEqualTo(true);
+        assertThat(evaluated.line()).isEqualTo(line);
+        assertThat(evaluated.column()).isEqualTo(column);
+    }
+
     @ParameterizedTest
     @MethodSource("letStatements")
     public void testLetStatements(String name, Program program, IntegerObject expected) {
@@ -541,4 +575,68 @@ public class NullangObjectTest {
                 .extracting(NullangObject::inspect)
                 .isEqualTo(expected.inspect());
     }
+
+    @ParameterizedTest
+    @MethodSource("streamingPrograms")
+    public void testStreamingEvaluation(String input, String expected) {
+        try (Parser parser = new Parser(new Lexer(new StringReader(input)))) {
+            var evaluated = new Eval().evaluateStreaming(parser, new Env());
+
+            assertThat(evaluated.inspect()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testStreamingEvaluationOfLongScript() {
+        StringBuilder script = new StringBuilder("let total = 0;\n");
+        for (int i = 0; i < 20_000; i++) {
+            script.append("let total = total + ").append(i % 10).append(";\n");
+        }
+        script.append("total;");
+
+        try (Parser parser = new Parser(Lexer.buffered(new StringReader(script.toString())))) {
+            var evaluated = new Eval().evaluateStreaming(parser, new Env());
+
+            assertThat(evaluated.inspect()).isEqualTo("90000");
+        }
+    }
+
+    @Test
+    public void testSmallIntegersAreShared() {
+        assertThat(IntegerObject.valueOf(-128)).isSameAs(IntegerObject.valueOf(-128));
+        assertThat(IntegerObject.valueOf(1023)).isSameAs(IntegerObject.valueOf(1023));
+        assertThat(IntegerObject.valueOf(-129)).isNotSameAs(IntegerObject.valueOf(-129));
+        assertThat(IntegerObject.valueOf(1024)).isNotSameAs(IntegerObject.valueOf(1024));
+        assertThat(IntegerObject.valueOf(5000)).isEqualTo(new IntegerObject(5000));
+    }
+
+    @Test
+    public void testIntegerLiteralsAreInternedAtParseTime() {
+        Program program = new Parser(new Lexer("100000;")).parseProgram();
+
+        var first = new Eval().evaluate(program, new Env());
+        var second = new Eval().evaluate(program, new Env());
+
+        assertThat(first).isSameAs(second);
+    }
+
+    private static Stream<Arguments> unboxedArithmetic() {
+        return Stream.of(
+                Arguments.of("let a = 2; let b = 3; a * b + a * b;", "12"),
+                Arguments.of("let a = 2000; (a + 1) * (a - 1) / 3;", "1333333"),
+                Arguments.of("let a = 2147483647; a + 1 - 1;", "2147483647"),
+                Arguments.of("let a = \"x\"; a + a + a;", "xxx"),
+                Arguments.of("let a = true; a * 2 + 1;", "ERROR: type mismatch: BOOLEAN * INTEGER"),
+                Arguments.of("let a = 1; a + b * 2;", "ERROR: identifier not found: b"),
+                Arguments.of("let f = fn(x) { x * x + 1 }; f(3) + f(\"a\");", "ERROR: unknown operator: STRING * STRING")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("unboxedArithmetic")
+    public void testUnboxedArithmetic(String input, String expected) {
+        var evaluated = new Eval().evaluate(new Parser(new Lexer(input)).parseProgram(), new Env());
+
+        assertThat(evaluated.inspect()).isEqualTo(expected);
+    }
 }
@@ -0,0 +1,89 @@
+package com.nullang.nullangobject;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringObjectTest {
+    @Test
+    void testShortConcatenation() {
+        var joined = new StringObject("foo").concat(new StringObject("bar"));
+
+        assertThat(joined.length()).isEqualTo(6);
+        assertThat(joined.inspect()).isEqualTo("foobar");
+        assertThat(joined).isEqualTo(new StringObject("foobar"));
+    }
+
+    @Test
+    void testEmptySidesAreShared() {
+        var text = new StringObject("text");
+        var empty = new StringObject("");
+
+        assertThat(text.concat(empty)).isSameAs(text);
+        assertThat(empty.concat(text)).isSameAs(text);
+    }
+
+    @Test
+    void testDeepConcatenation() {
+        var piece = "0123456789";
+        var rope = new StringObject("");
+        for (int i = 0; i < 100_000; i++) {
+            rope = rope.concat(new StringObject(piece));
+        }
+
+        assertThat(rope.length()).isEqualTo(1_000_000);
+        assertThat(rope.value()).isEqualTo(piece.repeat(100_000));
+    }
+
+    @Test
+    void testConcatenationOnBothSides() {
+        var long1 = new StringObject("a".repeat(100));
+        var long2 = new StringObject("b".repeat(100));
+        var rope = long1.concat(long2);
+        var wrapped = long2.concat(rope).concat(long1);
+
+        assertThat(wrapped.value()).isEqualTo("b".repeat(100) + "a".repeat(100) + "b".repeat(100) + "a".repeat(100));
+        assertThat(rope.value()).isEqualTo("a".repeat(100) + "b".repeat(100));
+    }
+
+    @Test
+    void testConcurrentFlattening() throws Exception {
+        var piece = "0123456789";
+        for (int round = 0; round < 100; round++) {
+            var rope = new StringObject("");
+            var prefix = rope;
+            for (int i = 0; i < 1_000; i++) {
+                rope = rope.concat(new StringObject(piece));
+                if (i == 499) {
+                    prefix = rope;
+                }
+            }
+            // Flattening the prefix while other threads walk through it to flatten the whole rope.
+            List<StringObject> strings = List.of(rope, prefix, rope, prefix);
+
+            try (var executor = Executors.newFixedThreadPool(strings.size())) {
+                List<Future<String>> results = new ArrayList<>();
+                for (var string : strings) {
+                    results.add(executor.submit(string::value));
+                }
+                for (int i = 0; i < strings.size(); i++) {
+                    assertThat(results.get(i).get()).isEqualTo(piece.repeat(strings.get(i).length() / piece.length()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRopesAsHashKeys() {
+        var rope = new StringObject("k".repeat(50)).concat(new StringObject("v".repeat(50)));
+        var hash = new HashObject(List.of(rope), List.of(IntegerObject.valueOf(1)));
+
+        assertThat(hash.get(new StringObject("k".repeat(50) + "v".repeat(50)))).isEqualTo(IntegerObject.valueOf(1));
+        assertThat(rope.hashCode()).isEqualTo(new StringObject(rope.value()).hashCode());
+    }
+}
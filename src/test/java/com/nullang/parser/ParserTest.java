@@ -10,13 +10,16 @@ import com.nullang.ast.expression.FnExpression;
 import com.nullang.ast.expression.IfExpression;
 import com.nullang.ast.expression.IndexExpression;
 import com.nullang.ast.expression.InfixExpression;
+import com.nullang.ast.expression.Operator;
 import com.nullang.ast.expression.PrefixExpression;
+import com.nullang.ast.expression.SliceExpression;
 import com.nullang.ast.statement.BlockStatement;
 import com.nullang.ast.statement.ExpressionStatement;
 import com.nullang.ast.statement.LetStatement;
 import com.nullang.ast.statement.ReturnStatement;
 import com.nullang.ast.statement.Statement;
 import com.nullang.lexer.Lexer;
+import com.nullang.lexer.TokenArray;
 import com.nullang.parser.errors.ParserException;
 import com.nullang.token.TokenType;
 import org.junit.jupiter.api.Test;
@@ -286,6 +289,26 @@ public class ParserTest {
         assertPrefixExpression("-15;", "-", 15);
     }
 
+    @Test
+    void testOperatorsAreResolvedFromTokenTypes() throws IOException {
+        Program program = parseInput("1 + 2; 1 - 2; 1 * 2; 1 / 2; 1 < 2; 1 > 2; 1 == 2; 1 != 2; !true; -1;");
+        Operator[] expected = {
+                Operator.PLUS, Operator.MINUS, Operator.ASTERISK, Operator.SLASH,
+                Operator.LT, Operator.GT, Operator.EQ, Operator.NOT_EQ, Operator.BANG, Operator.MINUS
+        };
+
+        for (int i = 0; i < expected.length; i++) {
+            var expression = ((ExpressionStatement) program.statements.get(i)).expression();
+            var operator = expression instanceof InfixExpression infix
+                    ? infix.getOperatorKind()
+                    : ((PrefixExpression) expression).getOperatorKind();
+            assertEquals(expected[i], operator);
+            assertEquals(expected[i].symbol(), expression instanceof InfixExpression infix
+                    ? infix.getOperator()
+                    : ((PrefixExpression) expression).getOperator());
+        }
+    }
+
     @Test
     void testMultipleInfixExpressions() throws IOException {
         Program program =
@@ -665,6 +688,19 @@ public class ParserTest {
         assertThat(indexExpression.getIndex().toString()).isEqualTo("(1 + 1)");
     }
 
+    @Test
+    void testSliceExpression() throws IOException {
+        Program program = parseInput("myArray[1:n]");
+
+        var expressionStatement = (ExpressionStatement) program.statements.getFirst();
+        assertThat(expressionStatement.expression()).isInstanceOf(SliceExpression.class);
+
+        var slice = (SliceExpression) expressionStatement.expression();
+        assertThat(slice.left().toString()).isEqualTo("myArray");
+        assertThat(slice.start().toString()).isEqualTo("1");
+        assertThat(slice.end().toString()).isEqualTo("n");
+    }
+
     private static Stream<Arguments> arrayPrecedenceExpressions() {
         return Stream.of(
                 Arguments.of(
@@ -674,6 +710,22 @@ public class ParserTest {
                 Arguments.of(
                         "add(a * b[2], b[1], 2 * [1, 2][1])",
                         "add((a * (b[2])), (b[1]), (2 * ([1, 2][1])))"
+                ),
+                Arguments.of(
+                        "a[1 + 1:len(a)] + b[:c * 2][d:]",
+                        "((a[(1 + 1):len(a)]) + ((b[:(c * 2)])[d:]))"
+                ),
+                Arguments.of(
+                        "a[:]",
+                        "(a[:])"
+                ),
+                Arguments.of(
+                        "{\"a\": 1 + 2, b: c[0], }[key]",
+                        "({a: (1 + 2), b: (c[0])}[key])"
+                ),
+                Arguments.of(
+                        "{}",
+                        "{}"
                 )
         );
     }
@@ -685,4 +737,27 @@ public class ParserTest {
 
         assertThat(program.toString()).isEqualTo(expected);
     }
+
+    @ParameterizedTest
+    @MethodSource("arrayPrecedenceExpressions")
+    void testParsingFromCachedTokenArray(String input, String expected) {
+        TokenArray tokens = TokenArray.tokenize(input);
+
+        for (int i = 0; i < 2; i++) {
+            try (Parser parser = new Parser(tokens.cursor())) {
+                assertThat(parser.parseProgram().toString()).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void testParsingOneStatementAtATime() {
+        try (Parser parser = new Parser(new Lexer("let x = 1; ; x + 2; return x;"))) {
+            assertThat(parser.parseNextStatement().get()).isInstanceOf(LetStatement.class);
+            assertThat(parser.parseNextStatement().get().toString()).isEqualTo("(x + 2)");
+            assertThat(parser.parseNextStatement().get()).isInstanceOf(ReturnStatement.class);
+            assertThat(parser.parseNextStatement().isPresent()).isEqualTo(false);
+            assertThat(parser.parseNextStatement().isPresent()).isEqualTo(false);
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package com.nullang.vm;
+
+import com.nullang.ast.Program;
+import com.nullang.compiler.Compiler;
+import com.nullang.engine.Engine;
+import com.nullang.eval.Env;
+import com.nullang.eval.Eval;
+import com.nullang.lexer.Lexer;
+import com.nullang.nullangobject.ErrorObject;
+import com.nullang.nullangobject.NullangObject;
+import com.nullang.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VmTest {
+    private static Stream<Arguments> programs() {
+        return Stream.of(
+                Arguments.of("5; 10;"),
+                Arguments.of("true; false;"),
+                Arguments.of("!true; !!false; !5; !!5;"),
+                Arguments.of("-5 + 10 * 2 - 3 / 3;"),
+                Arguments.of("(5 + 10 * 2 + 15 / 3) * 2 + -10;"),
+                Arguments.of("1 < 2 == true; 1 > 2 != false; 3 == 3; 3 != 4;"),
+                Arguments.of("if (true) { 10 }"),
+                Arguments.of("if (false) { 10 }"),
+                Arguments.of("if (1 > 2) { 10 } else { 20 }"),
+                Arguments.of("if (1 < 2) { 10; 11 } else { 20 }; 3"),
+                Arguments.of("if (10 > 1) { if (10 > 1) { return 10; } return 1; }"),
+                Arguments.of("9; return 2 * 5; 9;"),
+                Arguments.of("let a = 5; let b = a; let c = a + b + 5; c;"),
+                Arguments.of("let a = 5 * 5;"),
+                Arguments.of("let identity = fn(x) { x; }; identity(5);"),
+                Arguments.of("let double = fn(x) { x * 2; }; double(double(5));"),
+                Arguments.of("let add = fn(x, y) { x + y; }; add(5 + 5, add(5, 5));"),
+                Arguments.of("fn(x) { x; }(5)"),
+                Arguments.of("let f = fn(x) { let y = x + 1; }; f(1);"),
+                Arguments.of("let f = fn(x) { if (x) { 1 } }; f(false);"),
+                Arguments.of("let newAdder = fn(x) { fn(y) { x + y }; }; let addTwo = newAdder(2); addTwo(2);"),
+                Arguments.of("let adder = fn(a) { fn(b) { fn(c) { a + b + c } } }; adder(1)(2)(3);"),
+                Arguments.of("let f = fn() { let g = fn() { y }; let y = 5; g() }; f();"),
+                Arguments.of("let y = 1; let f = fn() { let z = y; let y = 2; z + y }; f();"),
+                Arguments.of("let y = 1; let f = fn(c) { if (c) { let y = 10; } y }; f(false);"),
+                Arguments.of("let f = fn() { g() }; let g = fn() { 7 }; f();"),
+                Arguments.of("let fib = fn(n) { if (n < 2) { return n; } fib(n - 1) + fib(n - 2) }; fib(15);"),
+                Arguments.of("let countdown = fn(n) { if (n == 0) { return 0; } countdown(n - 1) }; countdown(50);"),
+                Arguments.of("\"Hello\" + \" \" + \"World!\""),
+                Arguments.of("let f = fn(x) { x }; f;"),
+                Arguments.of("len(\"\"); len(\"four\"); len([1, 2, 3]);"),
+                Arguments.of("len(1)"),
+                Arguments.of("len(\"one\", \"two\")"),
+                Arguments.of("first([1, 2, 3]); first([]);"),
+                Arguments.of("tail([1, 2, 3]);"),
+                Arguments.of("let a = [1]; push(a, 2); a;"),
+                Arguments.of("puts(\"hello\");"),
+                Arguments.of("let len = fn(x) { 42 }; len(\"abc\");"),
+                Arguments.of("[1, 2 * 2, 3 + 3][1];"),
+                Arguments.of("let a = [1, 2, 3]; a[a[0]] + a[0 - 1];"),
+                Arguments.of("[1, 2][5];"),
+                Arguments.of("let h = {\"one\": 1, 2: \"two\", true: [3]}; [h[\"one\"], h[2], h[true], h[\"2\"], h[false], len(h)];"),
+                Arguments.of("let k = \"a\"; let h = {k: 1, \"a\": 2, 1 + 1: k + \"b\"}; [h[\"a\"], h[2], len(h)];"),
+                Arguments.of("{}; len({});"),
+                Arguments.of("{\"a\": 1}"),
+                Arguments.of("{fn(x) { x }: 1}"),
+                Arguments.of("{\"a\": 1}[[1]]"),
+                Arguments.of("{1: missing}"),
+                Arguments.of("let grow = fn(s, n) { if (n == 0) { s } else { grow(s + \"abcdefghij\", n - 1) } }; let s = grow(\"\", 20); let h = {s: 1}; [len(s), h[grow(\"\", 20)], len(s + s), s];"),
+                Arguments.of("let route = fn(table, path) { table[path] }; route({\"/\": \"index\", \"/about\": \"about\"}, \"/about\");"),
+                Arguments.of("let a = [1, 2, 3, 4]; [a[1:3], a[:2], a[2:], a[:], a[3:1], a[-5:9]];"),
+                Arguments.of("let a = [1, 2, 3, 4]; let s = a[1:3]; [push(s, 9), a, s[0], s[2], len(s)];"),
+                Arguments.of("rest([1, 2, 3]); rest([]);"),
+                Arguments.of("[rest(rest([1, \"two\", true])), rest([1][0:0])];"),
+                Arguments.of("1[0:1]"),
+                Arguments.of("[1, 2][true:]"),
+                Arguments.of("[1, 2][:\"x\"]"),
+                Arguments.of("rest(1)"),
+                Arguments.of("5 + true"),
+                Arguments.of("5 + true; 5;"),
+                Arguments.of("-true"),
+                Arguments.of("true + false"),
+                Arguments.of("5; true + false; 5;"),
+                Arguments.of("if (10 > 1) { true + false; }"),
+                Arguments.of("foobar"),
+                Arguments.of("\"hello\" - \"world\""),
+                Arguments.of("let f = fn() { missing }; f();"),
+                Arguments.of("let f = fn(x, y) { x + y }; f(1);"),
+                Arguments.of("let f = fn(x) { if (x) { return; } 5 }; [f(true), f(false), fn() {}()];"),
+                Arguments.of("5(1)"),
+                Arguments.of("1[0]"),
+                Arguments.of("let a = 1; a == a; true == true; \"a\" == \"a\";"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("programs")
+    void testSameResultsAsEval(String input) {
+        NullangObject expected = new Eval().evaluate(parse(input), new Env());
+        NullangObject actual = runVm(input);
+
+        assertThat(actual.inspect()).isEqualTo(expected.inspect());
+        assertThat(actual.type()).isEqualTo(expected.type());
+    }
+
+    @Test
+    void testErrorPositions() {
+        var error = (ErrorObject) runVm("let a = 1;\nlet f = fn(x) {\n  x + missing\n};\nf(a);");
+
+        assertThat(error.message()).isEqualTo("identifier not found: missing");
+        assertThat(error.location()).isEqualTo("3:7");
+    }
+
+    @Test
+    void testRecursionDeeperThanTheJavaStack() {
+        var result = runVm("let count = fn(n) { if (n == 0) { return 0; } 1 + count(n - 1) }; count(50000);");
+
+        assertThat(result.inspect()).isEqualTo("50000");
+    }
+
+    @Test
+    void testRunawayRecursionIsAnError() {
+        var result = runVm("let f = fn(n) { 1 + f(n + 1) }; f(0);");
+
+        assertThat(result.inspect()).startsWith("ERROR: stack overflow");
+    }
+
+    @Test
+    void testTailCallsReuseTheirFrame() {
+        var result = runVm("""
+                let build = fn(n, xs) { if (n == 0) { xs } else { build(n - 1, push(xs, n)) } };
+                let sum = fn(xs, acc) { if (len(xs) == 0) { return acc; } sum(rest(xs), acc + first(xs)) };
+                sum(build(1000000, []), 0);
+                """);
+
+        assertThat(result.inspect()).isEqualTo("1784293664");
+    }
+
+    @Test
+    void testMaxFramesIsConfigurable() {
+        var bytecode = new Compiler().compile(parse("let count = fn(n) { if (n == 0) { return 0; } 1 + count(n - 1) }; count(100);"));
+
+        assertThat(new Vm(50).run(bytecode).inspect()).isEqualTo("ERROR: stack overflow: more than 50 nested calls");
+        assertThat(new Vm(200).run(bytecode).inspect()).isEqualTo("100");
+    }
+
+    @Test
+    void testGlobalsPersistAcrossRuns() {
+        Engine engine = Engine.named("vm");
+        engine.run(parse("let inc = fn(x) { x + base }; let base = 10;"));
+
+        assertThat(engine.run(parse("inc(5);")).inspect()).isEqualTo("15");
+    }
+
+    private static NullangObject runVm(String input) {
+        return new Vm().run(new Compiler().compile(parse(input)));
+    }
+
+    private static Program parse(String input) {
+        return new Parser(new Lexer(input)).parseProgram();
+    }
+}